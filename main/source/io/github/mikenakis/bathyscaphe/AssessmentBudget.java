@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe;
+
+import java.time.Duration;
+
+/**
+ * Limits on the work that may be done while assessing an object. When a limit is exceeded, the assessment is abandoned, and the outcome is inconclusive.
+ *
+ * @param maximumObjectCount the maximum number of objects to visit; every field value, component and array element encountered counts, even if it is
+ *                           {@code null} or of an immutable class, so that huge collections of strings cannot evade the limits.
+ * @param maximumDepth       the maximum number of references to follow from the object being assessed to any object reachable from it.
+ * @param timeLimit          the maximum amount of time to spend, or {@code null} for no limit.
+ * @param interruptible      whether to abandon the assessment if the thread is interrupted. The interrupted status of the thread is left intact.
+ *
+ * @author michael.gr
+ */
+public record AssessmentBudget( long maximumObjectCount, int maximumDepth, Duration timeLimit, boolean interruptible )
+{
+	/**
+	 * The limit which was exceeded.
+	 */
+	public enum Limit
+	{
+		ObjectCount,
+		Depth,
+		Time,
+		Interruption
+	}
+
+	/**
+	 * A budget without any limits, to build upon.
+	 */
+	public static final AssessmentBudget unlimited = new AssessmentBudget( Long.MAX_VALUE, Integer.MAX_VALUE, null, false );
+
+	public AssessmentBudget
+	{
+		assert maximumObjectCount >= 0;
+		assert maximumDepth >= 0;
+		assert timeLimit == null || !timeLimit.isNegative();
+	}
+
+	public AssessmentBudget withMaximumObjectCount( long maximumObjectCount )
+	{
+		return new AssessmentBudget( maximumObjectCount, maximumDepth, timeLimit, interruptible );
+	}
+
+	public AssessmentBudget withMaximumDepth( int maximumDepth )
+	{
+		return new AssessmentBudget( maximumObjectCount, maximumDepth, timeLimit, interruptible );
+	}
+
+	public AssessmentBudget withTimeLimit( Duration timeLimit )
+	{
+		return new AssessmentBudget( maximumObjectCount, maximumDepth, timeLimit, interruptible );
+	}
+
+	public AssessmentBudget withInterruptible( boolean interruptible )
+	{
+		return new AssessmentBudget( maximumObjectCount, maximumDepth, timeLimit, interruptible );
+	}
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe;
+
+/**
+ * How thoroughly the assertions of {@link Bathyscaphe} assess objects.
+ *
+ * @author michael.gr
+ */
+public enum AssessmentLevel
+{
+	/**
+	 * Objects are not assessed at all; the assertions always succeed.
+	 */
+	Off,
+
+	/**
+	 * Only the class of each object is assessed; the assertions fail only for objects of classes which are mutable regardless of content, and for
+	 * non-empty arrays. The fields and components of objects are not looked into.
+	 */
+	TypeOnly,
+
+	/**
+	 * Only some of the objects are fully assessed, as decided by the {@link SampledAssertion} given to {@link Bathyscaphe#setSampledAssertion}; the rest
+	 * are let through.
+	 */
+	Sampled,
+
+	/**
+	 * Every object is fully assessed. This is the default.
+	 */
+	Full
+}
@@ -7,13 +7,23 @@
 
 package io.github.mikenakis.bathyscaphe;
 
+import io.github.mikenakis.bathyscaphe.internal.AssessmentLevels;
+import io.github.mikenakis.bathyscaphe.internal.AsyncAssessor;
 import io.github.mikenakis.bathyscaphe.internal.ObjectAssessor;
 import io.github.mikenakis.bathyscaphe.internal.assessments.ImmutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.InconclusiveObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.MutableObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.ObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.diagnostic.AssessmentPrinter;
+import io.github.mikenakis.bathyscaphe.internal.mykit.collections.WeakIdentityCache;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Deep immutability assessment for Java objects.
@@ -22,6 +32,40 @@ import java.util.List;
  */
 public final class Bathyscaphe
 {
+	private static volatile SampledAssertion sampledAssertion = SampledAssertion.oneIn( 100 ).perRootType();
+
+	/**
+	 * Determines whether a certain object is immutable.
+	 * <p>
+	 * Unlike {@link #objectMustBeImmutableAssertion(Object)}, this does not explain why an object is mutable, so it allocates no diagnostics, whether the
+	 * object is immutable or not. Visiting the object may still allocate, for example iterators over composites which cannot be indexed, including the
+	 * entries of a map. Use {@link #explainAssessment(Object)} to obtain the explanation when needed.
+	 *
+	 * @param object the object whose immutability is to be assessed.
+	 *
+	 * @return {@code true} if the object is immutable; {@code false} otherwise.
+	 */
+	public static boolean isImmutable( Object object )
+	{
+		return ObjectAssessor.instance.isImmutable( object );
+	}
+
+	/**
+	 * Determines whether a certain object is thread-safe.
+	 * <p>
+	 * Unlike {@link #objectMustBeThreadSafeAssertion(Object)}, this does not explain why an object is not thread-safe, so it allocates no diagnostics,
+	 * whether the object is thread-safe or not. Visiting the object may still allocate, for example iterators over composites which cannot be indexed,
+	 * including the entries of a map. Use {@link #explainAssessment(Object)} to obtain the explanation when needed.
+	 *
+	 * @param object the object whose thread-safety is to be assessed.
+	 *
+	 * @return {@code true} if the object is thread-safe; {@code false} otherwise.
+	 */
+	public static boolean isThreadSafe( Object object )
+	{
+		return ObjectAssessor.instance.isThreadSafe( object );
+	}
+
 	/**
 	 * Asserts that a certain object is immutable.
 	 *
@@ -32,13 +76,149 @@ public final class Bathyscaphe
 	 */
 	public static boolean objectMustBeImmutableAssertion( Object object )
 	{
-		ObjectAssessment assessment = ObjectAssessor.instance.assess( object );
+		//PEARL: we are using if-statements instead of a switch, because a switch on an enum looks up an array which the JIT compiler cannot treat as a
+		//constant, so it would not compile down to nothing when the level is off.
+		AssessmentLevel level = AssessmentLevels.levelOf( object );
+		if( level == AssessmentLevel.Off )
+			return true;
+		if( level == AssessmentLevel.TypeOnly )
+			return immutableAssertion( ObjectAssessor.instance.assessShallowly( object ) );
+		if( level == AssessmentLevel.Sampled && !sampledAssertion.sample( object ) )
+			return true;
+		return immutableAssertion( ObjectAssessor.instance.assess( object ) );
+	}
+
+	/**
+	 * Asserts that a certain object is immutable, within a budget.
+	 * <p>
+	 * Meant for objects which might be too large to assess in an acceptable amount of time, so as to not hold up the current thread indefinitely. The
+	 * limits on the amount of time and on thread interruption are checked periodically, not after each object.
+	 *
+	 * @param object the object whose immutability is to be assessed.
+	 * @param budget limits on the work that may be done while assessing the object.
+	 *
+	 * @return always true.
+	 * @throws ObjectMustBeImmutableException        if the object is mutable.
+	 * @throws ObjectAssessmentInconclusiveException if a limit of the budget was exceeded before the object could be found to be either mutable or
+	 *                                               immutable.
+	 */
+	public static boolean objectMustBeImmutableAssertion( Object object, AssessmentBudget budget )
+	{
+		AssessmentLevel level = AssessmentLevels.levelOf( object );
+		if( level == AssessmentLevel.Off )
+			return true;
+		if( level == AssessmentLevel.TypeOnly )
+			return immutableAssertion( ObjectAssessor.instance.assessShallowly( object ) );
+		if( level == AssessmentLevel.Sampled && !sampledAssertion.sample( object ) )
+			return true;
+		return immutableAssertion( ObjectAssessor.instance.assess( object, budget ) );
+	}
+
+	static boolean immutableAssertion( ObjectAssessment assessment )
+	{
+		if( assessment instanceof InconclusiveObjectAssessment inconclusiveObjectAssessment )
+			throw new ObjectAssessmentInconclusiveException( inconclusiveObjectAssessment, ObjectAssessor.instance.stacklessExceptions() );
 		if( assessment instanceof MutableObjectAssessment mutableObjectAssessment )
-			throw new ObjectMustBeImmutableException( mutableObjectAssessment );
+			throw new ObjectMustBeImmutableException( mutableObjectAssessment, ObjectAssessor.instance.detachedDiagnostics(), ObjectAssessor.instance.stacklessExceptions() );
 		assert assessment instanceof ImmutableObjectAssessment;
 		return true;
 	}
 
+	/**
+	 * Asserts that a certain object is immutable, using all threads of the common {@link ForkJoinPool} to assess it.
+	 * <p>
+	 * Meant for very large object graphs. If the object is found to be mutable, it is re-assessed sequentially, so the exception explains the same mutable
+	 * path as {@link #objectMustBeImmutableAssertion(Object)} would have.
+	 *
+	 * @param object the object whose immutability is to be assessed.
+	 *
+	 * @return always true.
+	 * @throws  ObjectMustBeImmutableException if the object is mutable.
+	 */
+	public static boolean objectMustBeImmutableAssertionInParallel( Object object )
+	{
+		AssessmentLevel level = AssessmentLevels.levelOf( object );
+		if( level == AssessmentLevel.Off )
+			return true;
+		if( level == AssessmentLevel.TypeOnly )
+			return immutableAssertion( ObjectAssessor.instance.assessShallowly( object ) );
+		if( level == AssessmentLevel.Sampled && !sampledAssertion.sample( object ) )
+			return true;
+		return immutableAssertion( ObjectAssessor.instance.assessInParallel( object, ForkJoinPool.commonPool() ) );
+	}
+
+	/**
+	 * Begins an assessment of the immutability of an object which is carried out in slices, by invoking {@link IncrementalAssessment#step(long)}
+	 * repeatedly, for example from a low-priority background thread, until the verdict has been reached.
+	 *
+	 * @param object the object whose immutability is to be assessed.
+	 *
+	 * @return an {@link IncrementalAssessment} representing the assessment.
+	 */
+	public static IncrementalAssessment incrementalAssessment( Object object )
+	{
+		return new IncrementalAssessment( ObjectAssessor.instance.beginIncrementalAssessment( object ) );
+	}
+
+	/**
+	 * Asserts that a certain object is immutable, without holding up the current thread.
+	 * <p>
+	 * The assessment is carried out on the executor given to {@link #configureAsyncAssessment(Executor, int, QueueFullPolicy)}, which by default creates a
+	 * virtual thread per assessment. If an assessment of the same object is already pending, it is shared instead of starting a new one, so an object
+	 * asserted by many threads at the same moment is only traversed once.
+	 *
+	 * @param object the object whose immutability is to be assessed.
+	 *
+	 * @return a {@link CompletableFuture} which completes normally if the object is immutable, or exceptionally with an
+	 * 	{@link ObjectMustBeImmutableException} if the object is mutable.
+	 */
+	public static CompletableFuture<Void> assessAsync( Object object )
+	{
+		return ObjectAssessor.instance.asyncAssessor().submit( object, () -> objectMustBeImmutableAssertion( object ) );
+	}
+
+	/**
+	 * Configures {@link #assessAsync(Object)}. Assessments which are already pending are not affected, and the executor that was previously in use is not
+	 * shut down. By default, a virtual thread is created per assessment, at most 1024 assessments may be pending, and {@link QueueFullPolicy#Abort}
+	 * is in effect.
+	 *
+	 * @param executor            the {@link Executor} on which to carry out assessments.
+	 * @param maximumPendingCount the maximum number of assessments which may be pending at any given moment.
+	 * @param queueFullPolicy     what to do when an assessment is requested while the maximum number of assessments is pending.
+	 */
+	public static void configureAsyncAssessment( Executor executor, int maximumPendingCount, QueueFullPolicy queueFullPolicy )
+	{
+		ObjectAssessor.instance.setAsyncAssessor( new AsyncAssessor( executor, maximumPendingCount, queueFullPolicy ) );
+	}
+
+	/**
+	 * Assesses the immutability of many objects at once, remembering the objects that have been found to be immutable, so that subgraphs shared between
+	 * the objects are assessed only once.
+	 *
+	 * @param objects          the objects whose immutability is to be assessed.
+	 * @param parallel         whether to assess multiple objects at the same time, using the common {@link ForkJoinPool}.
+	 * @param progressListener invoked after the assessment of each object, with the number of objects assessed so far; if {@code parallel} is
+	 *                         {@code true}, it is invoked from multiple threads.
+	 *
+	 * @return an {@link ObjectMustBeImmutableException} for each mutable object, in the order of the objects; empty if all objects are immutable.
+	 */
+	public static List<ObjectMustBeImmutableException> immutabilityViolations( Stream<?> objects, boolean parallel, LongConsumer progressListener )
+	{
+		boolean detached = ObjectAssessor.instance.detachedDiagnostics();
+		boolean stackless = ObjectAssessor.instance.stacklessExceptions();
+		return ObjectAssessor.instance.assessAll( objects, parallel, progressListener ).stream() //
+			.map( mutableObjectAssessment -> new ObjectMustBeImmutableException( mutableObjectAssessment, detached, stackless ) ) //
+			.toList();
+	}
+
+	/**
+	 * Same as {@link #immutabilityViolations(Stream, boolean, LongConsumer)}, but for an {@link Iterable}.
+	 */
+	public static List<ObjectMustBeImmutableException> immutabilityViolations( Iterable<?> objects, boolean parallel, LongConsumer progressListener )
+	{
+		return immutabilityViolations( StreamSupport.stream( objects.spliterator(), false ), parallel, progressListener );
+	}
+
 	/**
 	 * Asserts that a certain object is thread-safe.
 	 *
@@ -49,11 +229,22 @@ public final class Bathyscaphe
 	 */
 	public static boolean objectMustBeThreadSafeAssertion( Object object )
 	{
-		ObjectAssessment assessment = ObjectAssessor.instance.assess( object );
+		AssessmentLevel level = AssessmentLevels.levelOf( object );
+		if( level == AssessmentLevel.Off )
+			return true;
+		if( level == AssessmentLevel.TypeOnly )
+			return threadSafeAssertion( ObjectAssessor.instance.assessShallowly( object ) );
+		if( level == AssessmentLevel.Sampled && !sampledAssertion.sample( object ) )
+			return true;
+		return threadSafeAssertion( ObjectAssessor.instance.assess( object ) );
+	}
+
+	static boolean threadSafeAssertion( ObjectAssessment assessment )
+	{
 		if( !assessment.isThreadSafe() )
 		{
 			MutableObjectAssessment mutableObjectAssessment = (MutableObjectAssessment)assessment;
-			throw new ObjectMustBeThreadSafeException( mutableObjectAssessment );
+			throw new ObjectMustBeThreadSafeException( mutableObjectAssessment, ObjectAssessor.instance.detachedDiagnostics(), ObjectAssessor.instance.stacklessExceptions() );
 		}
 		return true;
 	}
@@ -78,6 +269,170 @@ public final class Bathyscaphe
 		ObjectAssessor.instance.addThreadSafePreassessment( jvmClass );
 	}
 
+	/**
+	 * Adds a "composite" preassessment for a given class, overriding the "mutable" assessment that the class would normally receive.
+	 * <p>
+	 * Instances of the class are considered immutable if all of the components yielded by the given {@link Decomposer} are immutable, regardless of the
+	 * fields of the class. The decomposer should report the number of components via {@link Decomposer#size(Object)}, and, if possible, offer indexed
+	 * access via {@link Decomposer#component(Object, int)}, so that no iterator needs to be allocated, and so that huge instances can be assessed in parallel.
+	 *
+	 * @param jvmClass   the class to treat as composite.
+	 * @param decomposer the {@link Decomposer} which yields the components of instances of the class.
+	 */
+	public static <T, E> void addCompositePreassessment( Class<T> jvmClass, Decomposer<T,E> decomposer )
+	{
+		ObjectAssessor.instance.addCompositePreassessment( jvmClass, decomposer );
+	}
+
+	/**
+	 * Sets the number of instances of a class that must be assessed before the assessment of further instances of that class gets specialized.
+	 * <p>
+	 * A specialized assessment remembers, for each field, the first few classes of the values found in it; as long as the values are of those classes, the
+	 * assessment of the values is sped up. Classes whose instances are rarely assessed do not benefit from this, so they are not specialized.
+	 *
+	 * @param specializationThreshold the number of instances to assess before specializing; zero specializes right away.
+	 */
+	public static void setSpecializationThreshold( int specializationThreshold )
+	{
+		ObjectAssessor.instance.setSpecializationThreshold( specializationThreshold );
+	}
+
+	/**
+	 * Sets the number of components of a composite (e.g. elements of a list) above which {@link #objectMustBeImmutableAssertionInParallel(Object)} splits
+	 * them into chunks which are assessed in parallel.
+	 *
+	 * @param parallelSplitThreshold the maximum number of components to assess without splitting.
+	 */
+	public static void setParallelSplitThreshold( int parallelSplitThreshold )
+	{
+		ObjectAssessor.instance.setParallelSplitThreshold( parallelSplitThreshold );
+	}
+
+	/**
+	 * Specifies whether exceptions thrown by assertions should be detached from the objects that were assessed.
+	 * <p>
+	 * By default, {@link ObjectMustBeImmutableException} and {@link ObjectMustBeThreadSafeException} contain the full assessment, which references the
+	 * objects that were assessed, and thus keeps them alive for as long as the exception is alive. When exceptions are detached, they only contain the
+	 * names and indexes needed by their {@link MutablePath} and by their explanation, which is rendered by {@link #explain(ObjectMustBeImmutableException)},
+	 * so the assessed objects are not kept alive by the exception.
+	 *
+	 * @param detachedDiagnostics {@code true} to detach exceptions from the objects that were assessed.
+	 */
+	public static void setDetachedDiagnostics( boolean detachedDiagnostics )
+	{
+		ObjectAssessor.instance.setDetachedDiagnostics( detachedDiagnostics );
+	}
+
+	/**
+	 * Specifies whether exceptions thrown by assertions should skip capturing a stack trace.
+	 * <p>
+	 * Capturing the stack trace is by far the most expensive part of creating an exception, so this is useful when mutable objects are expected to be
+	 * encountered frequently, and are handled by catching the exception. The assessment diagnostics contained in the exceptions remain complete. By
+	 * default, stack traces are captured.
+	 *
+	 * @param stacklessExceptions {@code true} to skip capturing stack traces.
+	 */
+	public static void setStacklessExceptions( boolean stacklessExceptions )
+	{
+		ObjectAssessor.instance.setStacklessExceptions( stacklessExceptions );
+	}
+
+	/**
+	 * Specifies whether the fields of objects should be visited in an order which adapts to the assessments made so far.
+	 * <p>
+	 * When enabled, Bathyscaphe keeps track, for each class, of how often each of its fields turns out to be the cause of a mutable verdict, and visits the
+	 * fields of instances of the class in order of decreasing count, so that the assessment of an instance which is going to be found mutable fails as early
+	 * as possible. The verdicts are the same either way; however, if an object contains more than one mutable object, the one that gets reported may vary.
+	 * When disabled, fields are always visited in declaration order, so the reports are deterministic. By default, it is disabled.
+	 *
+	 * @param adaptiveFieldOrdering {@code true} to visit fields in adaptive order; {@code false} to visit fields in declaration order.
+	 */
+	public static void setAdaptiveFieldOrdering( boolean adaptiveFieldOrdering )
+	{
+		ObjectAssessor.instance.setAdaptiveFieldOrdering( adaptiveFieldOrdering );
+	}
+
+	/**
+	 * Sets the {@link AssessmentLevel} of the assertions for all objects, except those for which a different level has been set by package or by class.
+	 * <p>
+	 * The level can be changed at any time. As long as it does not change, checking it costs nothing, and when it is {@link AssessmentLevel#Off}, the
+	 * assertions compile down to nothing. Setting a level by package or by class makes checking it cost a lookup by the class of the object.
+	 *
+	 * @param level the level.
+	 */
+	public static void setAssessmentLevel( AssessmentLevel level )
+	{
+		AssessmentLevels.setDefaultLevel( level );
+	}
+
+	/**
+	 * Sets the {@link AssessmentLevel} of the assertions for objects of classes in a certain package and its sub-packages.
+	 *
+	 * @param packageName the name of the package.
+	 * @param level       the level, or {@code null} to remove the level that was previously set for the package.
+	 */
+	public static void setAssessmentLevel( String packageName, AssessmentLevel level )
+	{
+		AssessmentLevels.setPackageLevel( packageName, level );
+	}
+
+	/**
+	 * Sets the {@link AssessmentLevel} of the assertions for objects of a certain class, overriding any level set for its package.
+	 * <p>
+	 * The level is kept by class name, so that it does not keep the class alive; it applies to all classes of that name, regardless of class loader.
+	 *
+	 * @param jvmClass the class.
+	 * @param level    the level, or {@code null} to remove the level that was previously set for the class.
+	 */
+	public static void setAssessmentLevel( Class<?> jvmClass, AssessmentLevel level )
+	{
+		AssessmentLevels.setClassLevel( jvmClass, level );
+	}
+
+	/**
+	 * Sets the {@link SampledAssertion} which decides which objects to assess when the {@link AssessmentLevel} is {@link AssessmentLevel#Sampled}. By
+	 * default, one in every 100 objects of each class is assessed.
+	 *
+	 * @param sampledAssertion the {@link SampledAssertion}.
+	 */
+	public static void setSampledAssertion( SampledAssertion sampledAssertion )
+	{
+		assert sampledAssertion != null;
+		Bathyscaphe.sampledAssertion = sampledAssertion;
+	}
+
+	/**
+	 * Enables caching of objects proven to be immutable, so that they do not need to be assessed again, neither when asserted again, nor when reached
+	 * while assessing another object. The cache does not keep objects alive. If caching is already enabled, the cache is replaced with a new, empty one.
+	 *
+	 * @param maximumSize the approximate maximum number of objects to keep in the cache.
+	 */
+	public static void enableImmutableObjectCache( int maximumSize )
+	{
+		ObjectAssessor.instance.enableImmutableObjectCache( maximumSize );
+	}
+
+	/**
+	 * Disables caching of objects proven to be immutable, and discards the cache.
+	 */
+	public static void disableImmutableObjectCache()
+	{
+		ObjectAssessor.instance.disableImmutableObjectCache();
+	}
+
+	/**
+	 * Obtains statistics of the cache of objects proven to be immutable.
+	 *
+	 * @return the statistics, or {@code null} if caching is not enabled.
+	 */
+	public static ImmutableObjectCacheStatistics immutableObjectCacheStatistics()
+	{
+		WeakIdentityCache cache = ObjectAssessor.instance.immutableObjectCache();
+		if( cache == null )
+			return null;
+		return new ImmutableObjectCacheStatistics( cache.hitCount(), cache.missCount(), cache.size() );
+	}
+
 	/**
 	 * Obtains a detailed human-readable diagnostic text explaining why an assessment was issued.
 	 *
@@ -87,4 +442,14 @@ public final class Bathyscaphe
 	{
 		return AssessmentPrinter.getText( objectMustBeImmutableException );
 	}
+
+	/**
+	 * Obtains a detailed human-readable diagnostic text explaining whether a certain object is immutable, and if not, why.
+	 *
+	 * @param object the object to explain.
+	 */
+	public static List<String> explainAssessment( Object object )
+	{
+		return AssessmentPrinter.getText( ObjectAssessor.instance.assess( object ) );
+	}
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe;
+
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Decomposes an object by returning an iteration over its constituent components.
+ * <p>
+ * This interface is necessary for assessing types like {@link Map}, which are not iterable. Classes derived from {@link Map} must be explicitly preassessed
+ * as composite, supplying a decomposer which yields the keys and values of the map. User classes can be preassessed as composite by means of
+ * {@link Bathyscaphe#addCompositePreassessment(Class, Decomposer)}.
+ * <p>
+ * A decomposer which knows the number of components can report it via {@link #size(Object)}, so that the components of a huge composite can be split into
+ * chunks during parallel assessment. A decomposer which can also fetch a component by index should implement {@link IndexedDecomposer} instead.
+ *
+ * @param <T> The type of the composite object.
+ * @param <E> The type of the constituent components of the composite object.
+ *
+ * @author michael.gr
+ */
+public interface Decomposer<T, E>
+{
+	Iterable<E> decompose( T object );
+
+	/**
+	 * Returns the number of components of an object, or -1 if it is not cheaply known.
+	 */
+	default int size( T object )
+	{
+		return -1;
+	}
+
+	/**
+	 * Describes the component of an object at a given index, for use in diagnostics, or returns {@code null} if the index alone is descriptive enough.
+	 * <p>
+	 * Only invoked when a component has been found to be mutable, so it does not need to be fast.
+	 */
+	default String describeComponent( T object, int index )
+	{
+		return null;
+	}
+
+	/**
+	 * Decomposes an object into a {@link Spliterator} over its constituent components, so that the components of a huge composite can be assessed in
+	 * parallel chunks. The components must be the same as, and in the same order as, those returned by {@link #decompose(Object)}.
+	 */
+	default Spliterator<E> spliterate( T object )
+	{
+		int size = size( object );
+		if( size >= 0 )
+			return Spliterators.spliterator( decompose( object ).iterator(), size, Spliterator.ORDERED );
+		return decompose( object ).spliterator();
+	}
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe;
+
+/**
+ * Statistics of the cache of objects proven to be immutable.
+ *
+ * @param hitCount  the number of times an object was found in the cache, and therefore did not need to be assessed.
+ * @param missCount the number of times an object was not found in the cache.
+ * @param size      the number of objects in the cache, including any objects that have been garbage-collected but not yet purged.
+ *
+ * @author michael.gr
+ */
+public record ImmutableObjectCacheStatistics( long hitCount, long missCount, int size ) { }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe;
+
+import io.github.mikenakis.bathyscaphe.internal.ObjectAssessor;
+import io.github.mikenakis.bathyscaphe.internal.assessments.MutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.ObjectAssessment;
+
+/**
+ * An immutability assessment which is carried out in slices, so that the verdict on a huge object graph can be reached in the background, without ever
+ * blocking for long.
+ * <p>
+ * Obtained from {@link Bathyscaphe#incrementalAssessment(Object)}. The state of the assessment survives between slices, so each slice continues where the
+ * previous one stopped. Note that if objects that have already been visited are modified by the time the assessment completes, the verdict will not
+ * reflect the modifications; this is only a concern for objects which turn out to be mutable anyway.
+ *
+ * @author michael.gr
+ */
+public final class IncrementalAssessment
+{
+	public enum Status
+	{
+		InProgress,
+		Immutable,
+		Mutable,
+		Cancelled
+	}
+
+	private ObjectAssessor.IncrementalTraversal incrementalTraversal;
+	private Status status = Status.InProgress;
+	private long visitedObjectCount;
+	private ObjectMustBeImmutableException exception;
+
+	IncrementalAssessment( ObjectAssessor.IncrementalTraversal incrementalTraversal )
+	{
+		this.incrementalTraversal = incrementalTraversal;
+	}
+
+	/**
+	 * Carries out a slice of the assessment. If the assessment has already ended, does nothing.
+	 * <p>
+	 * If an exception is thrown, for example by an {@link ImmutabilitySelfAssessable} object, the assessment is cancelled.
+	 *
+	 * @param maximumObjectCount the maximum number of objects to visit in this slice; as in {@link AssessmentBudget#maximumObjectCount()}, every field
+	 *                           value, component and array element encountered counts.
+	 *
+	 * @return the status of the assessment.
+	 */
+	public synchronized Status step( long maximumObjectCount )
+	{
+		assert maximumObjectCount > 0;
+		if( status != Status.InProgress )
+			return status;
+		ObjectAssessment assessment;
+		try
+		{
+			assessment = incrementalTraversal.step( maximumObjectCount );
+		}
+		catch( RuntimeException | Error throwable )
+		{
+			cancel();
+			throw throwable;
+		}
+		visitedObjectCount = incrementalTraversal.visitedObjectCount();
+		if( assessment == null )
+			return status;
+		incrementalTraversal = null;
+		if( assessment instanceof MutableObjectAssessment mutableObjectAssessment )
+		{
+			exception = new ObjectMustBeImmutableException( mutableObjectAssessment, ObjectAssessor.instance.detachedDiagnostics(),
+				ObjectAssessor.instance.stacklessExceptions() );
+			status = Status.Mutable;
+		}
+		else
+			status = Status.Immutable;
+		return status;
+	}
+
+	/**
+	 * Abandons the assessment, releasing the objects that it references. If the assessment has already ended, does nothing.
+	 */
+	public synchronized void cancel()
+	{
+		if( status != Status.InProgress )
+			return;
+		incrementalTraversal.cancel();
+		incrementalTraversal = null;
+		status = Status.Cancelled;
+	}
+
+	/**
+	 * Obtains the status of the assessment.
+	 */
+	public synchronized Status status()
+	{
+		return status;
+	}
+
+	/**
+	 * Obtains the number of objects visited so far.
+	 */
+	public synchronized long visitedObjectCount()
+	{
+		return visitedObjectCount;
+	}
+
+	/**
+	 * Obtains the {@link ObjectMustBeImmutableException} explaining why the object is mutable.
+	 *
+	 * @return the exception, or {@code null} if the status is not {@link Status#Mutable}.
+	 */
+	public synchronized ObjectMustBeImmutableException exception()
+	{
+		return exception;
+	}
+}
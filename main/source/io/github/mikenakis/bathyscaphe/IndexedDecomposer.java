@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * A {@link Decomposer} which always knows the number of components of an object, and can fetch each of them by index, so that the components are
+ * fetched without allocating an iterator, and the components of a huge composite can be split into chunks during parallel assessment.
+ *
+ * @param <T> The type of the composite object.
+ * @param <E> The type of the constituent components of the composite object.
+ *
+ * @author michael.gr
+ */
+public interface IndexedDecomposer<T, E> extends Decomposer<T,E>
+{
+	/**
+	 * Returns the number of components of an object.
+	 */
+	@Override int size( T object );
+
+	/**
+	 * Returns the component of an object at a given index.
+	 * <p>
+	 * The components must be the same as, and in the same order as, those returned by {@link #decompose(Object)}.
+	 */
+	E component( T object, int index );
+
+	@Override default Iterable<E> decompose( T object )
+	{
+		return () -> Spliterators.iterator( spliterate( object ) );
+	}
+
+	@Override default Spliterator<E> spliterate( T object )
+	{
+		return new IndexedSpliterator<>( index -> component( object, index ), 0, size( object ) );
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * A {@link Spliterator} over a range of indexes, which uses a function to fetch the element at each index, and splits by halving the range.
+ * Used by {@link IndexedDecomposer#spliterate(Object)}; package-private, so that it does not become part of the public API.
+ *
+ * @param <E> The type of the elements.
+ *
+ * @author michael.gr
+ */
+final class IndexedSpliterator<E> implements Spliterator<E>
+{
+	private final IntFunction<E> getter;
+	private int index;
+	private final int end;
+
+	IndexedSpliterator( IntFunction<E> getter, int start, int end )
+	{
+		assert start >= 0 && start <= end;
+		this.getter = getter;
+		index = start;
+		this.end = end;
+	}
+
+	@Override public boolean tryAdvance( Consumer<? super E> action )
+	{
+		if( index >= end )
+			return false;
+		action.accept( getter.apply( index++ ) );
+		return true;
+	}
+
+	@Override public void forEachRemaining( Consumer<? super E> action )
+	{
+		while( index < end )
+			action.accept( getter.apply( index++ ) );
+	}
+
+	@Override public Spliterator<E> trySplit()
+	{
+		int middle = (index + end) >>> 1;
+		if( middle <= index )
+			return null;
+		Spliterator<E> prefix = new IndexedSpliterator<>( getter, index, middle );
+		index = middle;
+		return prefix;
+	}
+
+	@Override public long estimateSize()
+	{
+		return end - index;
+	}
+
+	@Override public int characteristics()
+	{
+		return ORDERED | SIZED | SUBSIZED;
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe;
+
+import io.github.mikenakis.bathyscaphe.internal.assessments.MutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableArrayElementMutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableComponentMutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableFieldValueMutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableSuperObjectMutableObjectAssessment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compact description of the path leading from an object to a mutable object found within it.
+ * <p>
+ * Consists of the name of the class of the object, a sequence of steps, each of which is either the name of a field, the index of a component or array
+ * element, or the description of a component, (such as the key of a map entry,) and the name of the class of the mutable object. Does not reference any
+ * of the objects involved, nor their classes.
+ *
+ * @author michael.gr
+ */
+public final class MutablePath
+{
+	static MutablePath of( MutableObjectAssessment mutableObjectAssessment )
+	{
+		String rootClassName = mutableObjectAssessment.object().getClass().getName();
+		List<Object> steps = new ArrayList<>();
+		for( ; ; )
+		{
+			//IntellijIdea blooper: good code red: Currently, (August 2022) IntellijIdea does not know anything about JDK 19, and it is not smart enough to
+			//figure out that feature-wise it must be a superset of the last JDK that it knows, which is JDK 17.
+			//As a result, it marks the following code with "Patterns in switch are not supported at language level '19'", which is just plain wrong.
+			switch( mutableObjectAssessment )
+			{
+				case MutableFieldValueMutableObjectAssessment assessment ->
+				{
+					steps.add( assessment.provisoryFieldAssessment.field.getName() );
+					mutableObjectAssessment = assessment.fieldValueAssessment;
+				}
+				case MutableSuperObjectMutableObjectAssessment assessment -> mutableObjectAssessment = assessment.mutableSuperObjectAssessment;
+				case MutableComponentMutableObjectAssessment<?,?> assessment ->
+				{
+					String description = assessment.decomposerComponentDescription();
+					steps.add( description == null ? assessment.elementIndex : new ComponentDescription( description ) );
+					mutableObjectAssessment = assessment.elementAssessment;
+				}
+				case MutableArrayElementMutableObjectAssessment assessment ->
+				{
+					steps.add( assessment.elementIndex );
+					mutableObjectAssessment = assessment.elementAssessment;
+				}
+				default ->
+				{
+					return new MutablePath( rootClassName, steps.toArray(), mutableObjectAssessment.object().getClass().getName() );
+				}
+			}
+		}
+	}
+
+	public final String rootClassName;
+	private final Object[] steps;
+	public final String mutableClassName;
+
+	private MutablePath( String rootClassName, Object[] steps, String mutableClassName )
+	{
+		this.rootClassName = rootClassName;
+		this.steps = steps;
+		this.mutableClassName = mutableClassName;
+	}
+
+	public int stepCount()
+	{
+		return steps.length;
+	}
+
+	/**
+	 * Returns a step of the path: either a {@link String} which is the name of a field, an {@link Integer} which is the index of a component or array
+	 * element, or a {@link ComponentDescription}.
+	 */
+	public Object step( int index )
+	{
+		return steps[index];
+	}
+
+	@Override public String toString()
+	{
+		StringBuilder stringBuilder = new StringBuilder( rootClassName );
+		for( Object step : steps )
+		{
+			if( step instanceof Integer || step instanceof ComponentDescription )
+				stringBuilder.append( '[' ).append( step ).append( ']' );
+			else
+				stringBuilder.append( '.' ).append( step );
+		}
+		return stringBuilder.append( " -> " ).append( mutableClassName ).toString();
+	}
+
+	/**
+	 * A step of a path which is a component described by its decomposer, for example, a value of a map, described by its key.
+	 */
+	public record ComponentDescription( String description )
+	{
+		@Override public String toString()
+		{
+			return description;
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe;
+
+import io.github.mikenakis.bathyscaphe.internal.assessments.InconclusiveObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.mykit.UncheckedException;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the assessment of an object was abandoned because it exceeded a limit of its {@link AssessmentBudget}, so it is not known whether the
+ * object is immutable. Contains statistics of the work that was done up to that point.
+ *
+ * @author michael.gr
+ */
+public final class ObjectAssessmentInconclusiveException extends UncheckedException
+{
+	/**
+	 * The name of the class of the object whose assessment was abandoned.
+	 */
+	public final String className;
+
+	/**
+	 * The limit which was exceeded.
+	 */
+	public final AssessmentBudget.Limit exceededLimit;
+
+	/**
+	 * The number of objects that were visited.
+	 */
+	public final long visitedObjectCount;
+
+	/**
+	 * The greatest number of references that were followed from the object to any object reachable from it.
+	 */
+	public final int reachedDepth;
+
+	/**
+	 * The amount of time that was spent.
+	 */
+	public final Duration elapsedTime;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param inconclusiveObjectAssessment the {@link InconclusiveObjectAssessment} that was issued for the object.
+	 * @param stackless                    whether to skip capturing the stack trace, which is what makes exceptions expensive to create.
+	 */
+	public ObjectAssessmentInconclusiveException( InconclusiveObjectAssessment inconclusiveObjectAssessment, boolean stackless )
+	{
+		super( stackless );
+		className = inconclusiveObjectAssessment.object.getClass().getName();
+		exceededLimit = inconclusiveObjectAssessment.exceededLimit;
+		visitedObjectCount = inconclusiveObjectAssessment.visitedObjectCount;
+		reachedDepth = inconclusiveObjectAssessment.reachedDepth;
+		elapsedTime = Duration.ofNanos( inconclusiveObjectAssessment.elapsedNanoseconds );
+	}
+}
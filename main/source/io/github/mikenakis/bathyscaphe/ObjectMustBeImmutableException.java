@@ -8,6 +8,7 @@
 package io.github.mikenakis.bathyscaphe;
 
 import io.github.mikenakis.bathyscaphe.internal.assessments.MutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.diagnostic.DetachedExplanation;
 import io.github.mikenakis.bathyscaphe.internal.mykit.UncheckedException;
 
 /**
@@ -17,8 +18,18 @@ import io.github.mikenakis.bathyscaphe.internal.mykit.UncheckedException;
  */
 public final class ObjectMustBeImmutableException extends UncheckedException
 {
+	/**
+	 * The {@link MutableObjectAssessment} that was issued for the object, or {@code null} if diagnostics are detached.
+	 */
 	public final MutableObjectAssessment mutableObjectAssessment;
 
+	/**
+	 * The explanation of the {@link MutableObjectAssessment} that was issued for the object if diagnostics are detached, or {@code null} otherwise.
+	 */
+	public final DetachedExplanation detachedExplanation;
+
+	private MutablePath mutablePath;
+
 	/**
 	 * Constructor.
 	 *
@@ -26,6 +37,32 @@ public final class ObjectMustBeImmutableException extends UncheckedException
 	 */
 	public ObjectMustBeImmutableException( MutableObjectAssessment mutableObjectAssessment )
 	{
-		this.mutableObjectAssessment = mutableObjectAssessment;
+		this( mutableObjectAssessment, false, false );
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param mutableObjectAssessment the {@link MutableObjectAssessment} that was issued for the object.
+	 * @param detached                whether to keep only the explanation of the assessment instead of the assessment itself, so as to not keep the
+	 *                                objects that it references alive.
+	 * @param stackless               whether to skip capturing the stack trace, which is what makes exceptions expensive to create.
+	 */
+	public ObjectMustBeImmutableException( MutableObjectAssessment mutableObjectAssessment, boolean detached, boolean stackless )
+	{
+		super( stackless );
+		this.mutableObjectAssessment = detached ? null : mutableObjectAssessment;
+		mutablePath = detached ? MutablePath.of( mutableObjectAssessment ) : null;
+		detachedExplanation = detached ? new DetachedExplanation( mutableObjectAssessment ) : null;
+	}
+
+	/**
+	 * Returns the path leading from the object to the mutable object found within it.
+	 */
+	public MutablePath mutablePath()
+	{
+		if( mutablePath == null )
+			mutablePath = MutablePath.of( mutableObjectAssessment );
+		return mutablePath;
 	}
 }
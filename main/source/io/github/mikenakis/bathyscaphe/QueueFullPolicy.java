@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe;
+
+/**
+ * What {@link Bathyscaphe#assessAsync(Object)} does when the maximum number of pending assessments has been reached.
+ *
+ * @author michael.gr
+ */
+public enum QueueFullPolicy
+{
+	/**
+	 * The returned future is completed exceptionally with a {@link java.util.concurrent.RejectedExecutionException}.
+	 */
+	Abort,
+
+	/**
+	 * The object is assessed by the calling thread, and the returned future is already complete.
+	 */
+	CallerRuns,
+
+	/**
+	 * The object is not assessed, and the returned future is completed normally, as if the object was immutable.
+	 */
+	Discard
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe;
+
+import io.github.mikenakis.bathyscaphe.internal.AssessmentLevels;
+import io.github.mikenakis.bathyscaphe.internal.ObjectAssessor;
+import io.github.mikenakis.bathyscaphe.internal.sampling.FirstThenOneInSampler;
+import io.github.mikenakis.bathyscaphe.internal.sampling.OneInSampler;
+import io.github.mikenakis.bathyscaphe.internal.sampling.RateLimitingSampler;
+import io.github.mikenakis.bathyscaphe.internal.sampling.Sampler;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * An assertion which only assesses a sample of the objects passed to it, and lets the rest through, so that it can be left enabled in production.
+ * <p>
+ * Meant to be stored in a static field at the call site, for example:
+ * <pre>
+ * private static final SampledAssertion sampledAssertion = SampledAssertion.oneIn( 100 );
+ * ...
+ * assert sampledAssertion.objectMustBeImmutableAssertion( object );
+ * </pre>
+ * By default, the sampling is done across all calls; {@link #perRootType()} makes it be done separately for each class of object passed to it.
+ * Skipping a call does not allocate memory.
+ * <p>
+ * The {@link AssessmentLevel} in effect for each object is honored: at {@link AssessmentLevel#Off} the object is let through without being sampled, at
+ * {@link AssessmentLevel#TypeOnly} only its class is assessed, and at {@link AssessmentLevel#Sampled} or {@link AssessmentLevel#Full} the object is
+ * sampled by this assertion, and fully assessed if selected.
+ *
+ * @author michael.gr
+ */
+public final class SampledAssertion
+{
+	/**
+	 * Creates a {@link SampledAssertion} which assesses the first object passed to it, and every Nth object thereafter.
+	 *
+	 * @param period the N.
+	 */
+	public static SampledAssertion oneIn( int period )
+	{
+		assert period > 0;
+		return new SampledAssertion( () -> new OneInSampler( period ), false );
+	}
+
+	/**
+	 * Creates a {@link SampledAssertion} which assesses at most a certain number of objects per second.
+	 *
+	 * @param maximumCountPerSecond the maximum number of objects to assess per second.
+	 */
+	public static SampledAssertion perSecond( int maximumCountPerSecond )
+	{
+		assert maximumCountPerSecond > 0;
+		return new SampledAssertion( () -> new RateLimitingSampler( maximumCountPerSecond ), false );
+	}
+
+	/**
+	 * Creates a {@link SampledAssertion} which assesses the first K objects passed to it, and every Nth object thereafter.
+	 * <p>
+	 * This is mostly useful in combination with {@link #perRootType()}, where it means "the first K objects of each class, then every Nth."
+	 *
+	 * @param firstCount the K.
+	 * @param period     the N.
+	 */
+	public static SampledAssertion firstThenOneIn( int firstCount, int period )
+	{
+		assert firstCount >= 0;
+		assert period > 0;
+		return new SampledAssertion( () -> new FirstThenOneInSampler( firstCount, period ), false );
+	}
+
+	private final Supplier<Sampler> samplerFactory;
+	private final Sampler sampler;
+	private final ClassValue<Sampler> samplersByRootType;
+	private final LongAdder checkedCount = new LongAdder();
+	private final LongAdder skippedCount = new LongAdder();
+
+	private SampledAssertion( Supplier<Sampler> samplerFactory, boolean perRootType )
+	{
+		this.samplerFactory = samplerFactory;
+		sampler = perRootType ? null : samplerFactory.get();
+		samplersByRootType = perRootType ? new ClassValue<>()
+		{
+			@Override protected Sampler computeValue( Class<?> type )
+			{
+				return samplerFactory.get();
+			}
+		} : null;
+	}
+
+	/**
+	 * Creates a new {@link SampledAssertion} with the same sampling policy as this one, but applied separately to each class of object passed to it.
+	 */
+	public SampledAssertion perRootType()
+	{
+		return new SampledAssertion( samplerFactory, true );
+	}
+
+	/**
+	 * Asserts that a certain object is immutable, if the object is selected by sampling.
+	 *
+	 * @param object the object whose immutability is to be assessed.
+	 *
+	 * @return always true.
+	 * @throws ObjectMustBeImmutableException if the object is selected by sampling and it is mutable.
+	 */
+	public boolean objectMustBeImmutableAssertion( Object object )
+	{
+		AssessmentLevel level = AssessmentLevels.levelOf( object );
+		if( level == AssessmentLevel.Off )
+			return true;
+		if( level == AssessmentLevel.TypeOnly )
+			return Bathyscaphe.immutableAssertion( ObjectAssessor.instance.assessShallowly( object ) );
+		if( !sample( object ) )
+			return true;
+		return Bathyscaphe.immutableAssertion( ObjectAssessor.instance.assess( object ) );
+	}
+
+	/**
+	 * Asserts that a certain object is thread-safe, if the object is selected by sampling.
+	 *
+	 * @param object the object whose thread-safety is to be assessed.
+	 *
+	 * @return always true.
+	 * @throws ObjectMustBeThreadSafeException if the object is selected by sampling and it is not thread-safe.
+	 */
+	public boolean objectMustBeThreadSafeAssertion( Object object )
+	{
+		AssessmentLevel level = AssessmentLevels.levelOf( object );
+		if( level == AssessmentLevel.Off )
+			return true;
+		if( level == AssessmentLevel.TypeOnly )
+			return Bathyscaphe.threadSafeAssertion( ObjectAssessor.instance.assessShallowly( object ) );
+		if( !sample( object ) )
+			return true;
+		return Bathyscaphe.threadSafeAssertion( ObjectAssessor.instance.assess( object ) );
+	}
+
+	/**
+	 * Obtains the number of objects that were selected by sampling and assessed.
+	 */
+	public long checkedCount()
+	{
+		return checkedCount.sum();
+	}
+
+	/**
+	 * Obtains the number of objects that were skipped by sampling.
+	 */
+	public long skippedCount()
+	{
+		return skippedCount.sum();
+	}
+
+	boolean sample( Object object )
+	{
+		Sampler sampler = samplersByRootType == null ? this.sampler : samplersByRootType.get( object == null ? Object.class : object.getClass() );
+		boolean result = sampler.sample();
+		(result ? checkedCount : skippedCount).increment();
+		return result;
+	}
+}
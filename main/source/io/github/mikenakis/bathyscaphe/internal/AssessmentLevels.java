@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal;
+
+import io.github.mikenakis.bathyscaphe.AssessmentLevel;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps track of the {@link AssessmentLevel} in effect for each class of object.
+ * <p>
+ * DO NOT USE; FOR INTERNAL USE ONLY.
+ * <p>
+ * The levels are kept in an immutable {@link Snapshot}, which is made available through a {@link MutableCallSite}, instead of a volatile field. As long
+ * as the levels do not change, the JIT compiler treats the snapshot as a constant, so when a single level is in effect for all classes, checking it costs
+ * nothing, and when that level is {@link AssessmentLevel#Off}, assertions compile down to nothing. When the levels change, the call site is given a new
+ * snapshot, and the code which depends on it is deoptimized.
+ * <p>
+ * Levels set for classes are kept by class name, just as levels set for packages are kept by package name, so that they do not keep the classes, nor
+ * their class loaders, alive; as a result, a level set for a class applies to all classes of the same name, regardless of class loader.
+ *
+ * @author michael.gr
+ */
+public final class AssessmentLevels
+{
+	private static final MutableCallSite callSite = new MutableCallSite( constant( Snapshot.of( AssessmentLevel.Full, Map.of(), Map.of() ) ) );
+	private static final MethodHandle snapshotGetter = callSite.dynamicInvoker();
+
+	private AssessmentLevels()
+	{
+	}
+
+	public static AssessmentLevel levelOf( Object object )
+	{
+		Snapshot snapshot = snapshot();
+		if( snapshot.levelsByClass == null )
+			return snapshot.defaultLevel;
+		return object == null ? snapshot.defaultLevel : snapshot.levelsByClass.get( object.getClass() );
+	}
+
+	public static synchronized void setDefaultLevel( AssessmentLevel level )
+	{
+		assert level != null;
+		Snapshot snapshot = snapshot();
+		setSnapshot( Snapshot.of( level, snapshot.packageLevels, snapshot.classLevels ) );
+	}
+
+	/**
+	 * Sets the level for a package and its sub-packages; {@code null} removes the level that was previously set.
+	 */
+	public static synchronized void setPackageLevel( String packageName, AssessmentLevel level )
+	{
+		Snapshot snapshot = snapshot();
+		setSnapshot( Snapshot.of( snapshot.defaultLevel, with( snapshot.packageLevels, packageName, level ), snapshot.classLevels ) );
+	}
+
+	/**
+	 * Sets the level for a class; {@code null} removes the level that was previously set.
+	 */
+	public static synchronized void setClassLevel( Class<?> jvmClass, AssessmentLevel level )
+	{
+		Snapshot snapshot = snapshot();
+		setSnapshot( Snapshot.of( snapshot.defaultLevel, snapshot.packageLevels, with( snapshot.classLevels, jvmClass.getName(), level ) ) );
+	}
+
+	private static Map<String,AssessmentLevel> with( Map<String,AssessmentLevel> map, String key, AssessmentLevel level )
+	{
+		assert key != null;
+		Map<String,AssessmentLevel> result = new HashMap<>( map );
+		if( level == null )
+			result.remove( key );
+		else
+			result.put( key, level );
+		return Map.copyOf( result );
+	}
+
+	private static Snapshot snapshot()
+	{
+		try
+		{
+			return (Snapshot)snapshotGetter.invokeExact();
+		}
+		catch( Throwable throwable )
+		{
+			throw new AssertionError( throwable );
+		}
+	}
+
+	private static void setSnapshot( Snapshot snapshot )
+	{
+		callSite.setTarget( constant( snapshot ) );
+		MutableCallSite.syncAll( new MutableCallSite[] { callSite } );
+	}
+
+	private static MethodHandle constant( Snapshot snapshot )
+	{
+		return MethodHandles.constant( Snapshot.class, snapshot );
+	}
+
+	/**
+	 * PEARL: this is a record, not a class, because the JIT compiler trusts the final fields of records to never change, so it can treat them as constants.
+	 */
+	private record Snapshot( AssessmentLevel defaultLevel, Map<String,AssessmentLevel> packageLevels, Map<String,AssessmentLevel> classLevels,
+		ClassValue<AssessmentLevel> levelsByClass )
+	{
+		static Snapshot of( AssessmentLevel defaultLevel, Map<String,AssessmentLevel> packageLevels, Map<String,AssessmentLevel> classLevels )
+		{
+			if( packageLevels.isEmpty() && classLevels.isEmpty() )
+				return new Snapshot( defaultLevel, packageLevels, classLevels, null );
+			ClassValue<AssessmentLevel> levelsByClass = new ClassValue<>()
+			{
+				@Override protected AssessmentLevel computeValue( Class<?> type )
+				{
+					return levelOf( type, defaultLevel, packageLevels, classLevels );
+				}
+			};
+			return new Snapshot( defaultLevel, packageLevels, classLevels, levelsByClass );
+		}
+
+		private static AssessmentLevel levelOf( Class<?> type, AssessmentLevel defaultLevel, Map<String,AssessmentLevel> packageLevels, //
+			Map<String,AssessmentLevel> classLevels )
+		{
+			AssessmentLevel classLevel = classLevels.get( type.getName() );
+			if( classLevel != null )
+				return classLevel;
+			for( String packageName = type.getPackageName(); !packageName.isEmpty(); packageName = parentPackageName( packageName ) )
+			{
+				AssessmentLevel packageLevel = packageLevels.get( packageName );
+				if( packageLevel != null )
+					return packageLevel;
+			}
+			return defaultLevel;
+		}
+
+		private static String parentPackageName( String packageName )
+		{
+			int index = packageName.lastIndexOf( '.' );
+			return index == -1 ? "" : packageName.substring( 0, index );
+		}
+	}
+}
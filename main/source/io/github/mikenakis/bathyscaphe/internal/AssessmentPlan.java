@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal;
+
+import io.github.mikenakis.bathyscaphe.internal.assessments.MutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableFieldValueMutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableSuperObjectMutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.ImmutableTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.TypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.NonImmutableTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.ArrayMutableTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.MutableTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ArrayOfProvisoryElementTypeProvisoryTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.CompositeProvisoryTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ExtensibleProvisoryTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.MultiReasonProvisoryTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ProvisoryFieldProvisoryTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ProvisorySuperclassProvisoryTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ProvisoryTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.SelfAssessableProvisoryTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.field.FieldAccessor;
+import io.github.mikenakis.bathyscaphe.internal.type.field.assessments.nonimmutable.provisory.ProvisoryFieldTypeProvisoryFieldAssessment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Describes how to assess instances of a particular class. Built once per class, from the {@link TypeAssessment} of the class.
+ * <p>
+ * The {@link TypeAssessment} of a class with provisory fields is a tree, which reflects the superclass chain of the class and the reasons why each class in
+ * the chain is provisory. Walking that tree for each object would be wasteful, so the provisory fields of the entire superclass chain are gathered into a
+ * single flat array of {@link FieldStep}s, in the same order in which walking the tree would have visited them.
+ *
+ * @author michael.gr
+ */
+final class AssessmentPlan
+{
+	enum Kind
+	{
+		Immutable, //instances are immutable without further checks.
+		Mutable, //instances are mutable without further checks.
+		Array, //instances are mutable unless empty.
+		SelfAssessable, //instances must be asked.
+		Composite, //the components of instances must be assessed.
+		Fields //the values of provisory fields of instances must be assessed.
+	}
+
+	private static final FieldStep[] noFieldSteps = new FieldStep[0];
+
+	static AssessmentPlan of( Class<?> type, TypeAssessment typeAssessment )
+	{
+		//IntellijIdea blooper: good code red: Currently, (August 2022) IntellijIdea does not know anything about JDK 19, and it is not smart enough to
+		//figure out that feature-wise it must be a superset of the last JDK that it knows, which is JDK 17.
+		//As a result, it marks the following code with "Patterns in switch are not supported at language level '19'", which is just plain wrong.
+		return switch( typeAssessment )
+			{
+				case ImmutableTypeAssessment ignore -> new AssessmentPlan( type, Kind.Immutable, typeAssessment, noFieldSteps );
+				//Class is extensible but otherwise immutable, and object is of this exact class and not of a further derived class, so object is immutable.
+				case ExtensibleProvisoryTypeAssessment ignore -> new AssessmentPlan( type, Kind.Immutable, typeAssessment, noFieldSteps );
+				case CompositeProvisoryTypeAssessment<?,?> ignore -> new AssessmentPlan( type, Kind.Composite, typeAssessment, noFieldSteps );
+				case SelfAssessableProvisoryTypeAssessment ignore -> new AssessmentPlan( type, Kind.SelfAssessable, typeAssessment, noFieldSteps );
+				case MultiReasonProvisoryTypeAssessment ignore -> new AssessmentPlan( type, Kind.Fields, typeAssessment, fieldSteps( (ProvisoryTypeAssessment)typeAssessment ) );
+				case ProvisorySuperclassProvisoryTypeAssessment ignore -> new AssessmentPlan( type, Kind.Fields, typeAssessment, fieldSteps( (ProvisoryTypeAssessment)typeAssessment ) );
+				case ProvisoryFieldProvisoryTypeAssessment ignore -> new AssessmentPlan( type, Kind.Fields, typeAssessment, fieldSteps( (ProvisoryTypeAssessment)typeAssessment ) );
+				case ArrayMutableTypeAssessment ignore -> new AssessmentPlan( type, Kind.Array, typeAssessment, noFieldSteps );
+				case MutableTypeAssessment ignore -> new AssessmentPlan( type, Kind.Mutable, typeAssessment, noFieldSteps );
+				default -> throw new AssertionError( typeAssessment );
+			};
+	}
+
+	private static FieldStep[] fieldSteps( ProvisoryTypeAssessment typeAssessment )
+	{
+		List<FieldStep> fieldSteps = new ArrayList<>();
+		collectFieldSteps( typeAssessment, new ProvisoryTypeAssessment[0], fieldSteps );
+		return fieldSteps.toArray( FieldStep[]::new );
+	}
+
+	private static void collectFieldSteps( ProvisoryTypeAssessment typeAssessment, ProvisoryTypeAssessment[] superObjectTypeAssessments, List<FieldStep> fieldSteps )
+	{
+		//IntellijIdea blooper: good code red: Currently, (August 2022) IntellijIdea does not know anything about JDK 19, and it is not smart enough to
+		//figure out that feature-wise it must be a superset of the last JDK that it knows, which is JDK 17.
+		//As a result, it marks the following code with "Patterns in switch are not supported at language level '19'", which is just plain wrong.
+		switch( typeAssessment )
+		{
+			case MultiReasonProvisoryTypeAssessment multiReasonAssessment ->
+			{
+				for( ProvisoryTypeAssessment provisoryReason : multiReasonAssessment.reasons )
+				{
+					switch( provisoryReason )
+					{
+						case ProvisorySuperclassProvisoryTypeAssessment provisorySuperclassAssessment ->
+							collectFieldSteps( provisorySuperclassAssessment.superclassAssessment, append( superObjectTypeAssessments, multiReasonAssessment ), fieldSteps );
+						case ProvisoryFieldProvisoryTypeAssessment provisoryFieldAssessment ->
+							fieldSteps.add( new FieldStep( superObjectTypeAssessments, multiReasonAssessment, provisoryFieldAssessment.fieldAssessment ) );
+						default -> throw new AssertionError( provisoryReason );
+					}
+				}
+			}
+			case ProvisorySuperclassProvisoryTypeAssessment provisorySuperclassAssessment ->
+				collectFieldSteps( provisorySuperclassAssessment.superclassAssessment, append( superObjectTypeAssessments, provisorySuperclassAssessment ), fieldSteps );
+			case ProvisoryFieldProvisoryTypeAssessment provisoryFieldAssessment ->
+				fieldSteps.add( new FieldStep( superObjectTypeAssessments, provisoryFieldAssessment, provisoryFieldAssessment.fieldAssessment ) );
+			default -> throw new AssertionError( typeAssessment );
+		}
+	}
+
+	private static ProvisoryTypeAssessment[] append( ProvisoryTypeAssessment[] array, ProvisoryTypeAssessment element )
+	{
+		ProvisoryTypeAssessment[] result = Arrays.copyOf( array, array.length + 1 );
+		result[array.length] = element;
+		return result;
+	}
+
+	final Class<?> type;
+	final Kind kind;
+	final TypeAssessment typeAssessment;
+	final boolean threadSafe;
+	final FieldStep[] fieldSteps;
+
+	/**
+	 * The field steps in the order in which they are visited when adaptive field ordering is enabled: the fields most often found to be the cause of a
+	 * mutable verdict come first, so that the assessment of an instance which is going to be found mutable fails as early as possible. Never modified;
+	 * replaced as a whole.
+	 */
+	private volatile FieldStep[] orderedFieldSteps;
+
+	/**
+	 * For {@link Kind#Composite}, the plans of the classes of components seen in instances so far.
+	 */
+	final PlanCache componentPlanCache;
+
+	/**
+	 * PEARL: these two are read and written by multiple threads without any synchronization. This is fine, because the worst that can happen is that a
+	 * few increments get lost, which just delays specialization a bit.
+	 */
+	private int assessmentCount;
+	private boolean specialized;
+
+	private AssessmentPlan( Class<?> type, Kind kind, TypeAssessment typeAssessment, FieldStep[] fieldSteps )
+	{
+		this.type = type;
+		this.kind = kind;
+		this.typeAssessment = typeAssessment;
+		threadSafe = !(typeAssessment instanceof NonImmutableTypeAssessment nonImmutableTypeAssessment) || nonImmutableTypeAssessment.isThreadSafe();
+		this.fieldSteps = fieldSteps;
+		orderedFieldSteps = fieldSteps;
+		componentPlanCache = kind == Kind.Composite ? new PlanCache() : null;
+	}
+
+	/**
+	 * Counts one more assessment of an instance, and tells whether this plan has been used often enough to be worth specializing.
+	 */
+	boolean tierUp( int specializationThreshold )
+	{
+		if( specialized )
+			return true;
+		if( ++assessmentCount < specializationThreshold )
+			return false;
+		specialized = true;
+		return true;
+	}
+
+	FieldStep[] orderedFieldSteps()
+	{
+		return orderedFieldSteps;
+	}
+
+	/**
+	 * Records that the value of a field has been found to be the cause of a mutable verdict, and moves the field ahead of the fields which have been found
+	 * to be the cause of fewer mutable verdicts.
+	 * <p>
+	 * PEARL: the counts are read and written by multiple threads without any synchronization, so they may lose a few increments, and the order may
+	 * momentarily lag behind them. This is fine, because the order only affects how soon a mutable verdict is reached, not the verdict itself.
+	 * The counts saturate instead of overflowing, so a field which has been the cause of a huge number of mutable verdicts stays ahead.
+	 */
+	void recordMutableVerdict( FieldStep fieldStep )
+	{
+		if( fieldStep.mutableVerdictCount == Integer.MAX_VALUE )
+			return;
+		int mutableVerdictCount = ++fieldStep.mutableVerdictCount;
+		FieldStep[] fieldSteps = orderedFieldSteps;
+		int index = 0;
+		while( fieldSteps[index] != fieldStep )
+			index++;
+		if( index == 0 || fieldSteps[index - 1].mutableVerdictCount >= mutableVerdictCount )
+			return;
+		FieldStep[] newFieldSteps = fieldSteps.clone();
+		for( ; index > 0 && newFieldSteps[index - 1].mutableVerdictCount < mutableVerdictCount; index-- )
+			newFieldSteps[index] = newFieldSteps[index - 1];
+		newFieldSteps[index] = fieldStep;
+		orderedFieldSteps = newFieldSteps;
+	}
+
+	/**
+	 * Describes a single provisory field whose value must be assessed, and how to explain a mutable assessment of that value.
+	 */
+	static final class FieldStep
+	{
+		/**
+		 * The type assessments that the object was viewed through on the way from its own class down to the class declaring the field, outermost first.
+		 */
+		private final ProvisoryTypeAssessment[] superObjectTypeAssessments;
+		private final ProvisoryTypeAssessment declaringTypeAssessment;
+		final ProvisoryFieldTypeProvisoryFieldAssessment fieldAssessment;
+		final FieldAccessor accessor;
+		final ArrayOfProvisoryElementTypeProvisoryTypeAssessment invariableArrayTypeAssessment;
+
+		/**
+		 * The plans of the classes of values seen in this field so far.
+		 */
+		private final PlanCache valuePlanCache = new PlanCache();
+
+		/**
+		 * The number of times the value of this field has been found to be the cause of a mutable verdict.
+		 */
+		private int mutableVerdictCount;
+
+		FieldStep( ProvisoryTypeAssessment[] superObjectTypeAssessments, ProvisoryTypeAssessment declaringTypeAssessment, //
+			ProvisoryFieldTypeProvisoryFieldAssessment fieldAssessment )
+		{
+			this.superObjectTypeAssessments = superObjectTypeAssessments;
+			this.declaringTypeAssessment = declaringTypeAssessment;
+			this.fieldAssessment = fieldAssessment;
+			accessor = fieldAssessment.accessor;
+			invariableArrayTypeAssessment = fieldAssessment.fieldTypeAssessment instanceof ArrayOfProvisoryElementTypeProvisoryTypeAssessment assessment ? assessment : null;
+		}
+
+		/**
+		 * Obtains the plan for a value of this field, from the inline cache if the class of the value has been seen in this field before.
+		 */
+		AssessmentPlan valuePlan( Class<?> valueClass, ClassValue<AssessmentPlan> plans )
+		{
+			return valuePlanCache.plan( valueClass, plans );
+		}
+
+		MutableObjectAssessment mutableAssessment( Object object, MutableObjectAssessment fieldValueAssessment )
+		{
+			MutableObjectAssessment result = new MutableFieldValueMutableObjectAssessment( object, declaringTypeAssessment, fieldAssessment, fieldValueAssessment );
+			for( int i = superObjectTypeAssessments.length - 1; i >= 0; i-- )
+				result = new MutableSuperObjectMutableObjectAssessment( object, superObjectTypeAssessments[i], result );
+			return result;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal;
+
+import io.github.mikenakis.bathyscaphe.QueueFullPolicy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Carries out assessments on an {@link Executor}, so that they do not hold up the threads that request them.
+ * <p>
+ * DO NOT USE; FOR INTERNAL USE ONLY.
+ * <p>
+ * Assessments are single-flight: if an assessment of an object is requested while another assessment of the same object is pending, the pending one is
+ * shared, so the object is only traversed once. The number of pending assessments is bounded; when the bound is reached, a {@link QueueFullPolicy}
+ * decides what happens.
+ *
+ * @author michael.gr
+ */
+public final class AsyncAssessor
+{
+	private final Executor executor;
+	private final Semaphore permits;
+	private final QueueFullPolicy queueFullPolicy;
+	private final ConcurrentHashMap<IdentityKey,CompletableFuture<Void>> pendingAssessments = new ConcurrentHashMap<>();
+
+	public AsyncAssessor( Executor executor, int maximumPendingCount, QueueFullPolicy queueFullPolicy )
+	{
+		assert maximumPendingCount > 0;
+		this.executor = executor;
+		permits = new Semaphore( maximumPendingCount );
+		this.queueFullPolicy = queueFullPolicy;
+	}
+
+	/**
+	 * Requests an assessment.
+	 *
+	 * @param object     the object to assess; used for identifying pending assessments of the same object.
+	 * @param assessment carries out the assessment; completes normally if the object is immutable, throws otherwise.
+	 *
+	 * @return a {@link CompletableFuture} which completes when the assessment completes, either normally or exceptionally.
+	 */
+	public CompletableFuture<Void> submit( Object object, Runnable assessment )
+	{
+		if( object == null )
+			return CompletableFuture.completedFuture( null );
+		IdentityKey key = new IdentityKey( object );
+		CompletableFuture<Void> pendingAssessment = pendingAssessments.get( key );
+		if( pendingAssessment != null )
+			return pendingAssessment.copy();
+		if( !permits.tryAcquire() )
+			return switch( queueFullPolicy )
+				{
+					case Abort -> CompletableFuture.failedFuture( new RejectedExecutionException( "too many pending assessments" ) );
+					case CallerRuns -> run( assessment );
+					case Discard -> CompletableFuture.completedFuture( null );
+				};
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		pendingAssessment = pendingAssessments.putIfAbsent( key, future );
+		if( pendingAssessment != null ) //another thread submitted an assessment of the same object in the meantime.
+		{
+			permits.release();
+			return pendingAssessment.copy();
+		}
+		try
+		{
+			executor.execute( () -> //
+			{
+				try
+				{
+					assessment.run();
+					complete( key, future, null );
+				}
+				catch( Throwable throwable )
+				{
+					complete( key, future, throwable );
+				}
+			} );
+		}
+		catch( RejectedExecutionException rejectedExecutionException )
+		{
+			complete( key, future, rejectedExecutionException );
+		}
+		return future.copy();
+	}
+
+	private void complete( IdentityKey key, CompletableFuture<Void> future, Throwable throwable )
+	{
+		//The future is removed before it is completed, so that whoever sees it complete and then requests another assessment of the same object, gets a
+		//new assessment, which reflects any changes made to the object in the meantime.
+		pendingAssessments.remove( key, future );
+		permits.release();
+		if( throwable == null )
+			future.complete( null );
+		else
+			future.completeExceptionally( throwable );
+	}
+
+	private static CompletableFuture<Void> run( Runnable assessment )
+	{
+		try
+		{
+			assessment.run();
+			return CompletableFuture.completedFuture( null );
+		}
+		catch( Throwable throwable )
+		{
+			return CompletableFuture.failedFuture( throwable );
+		}
+	}
+
+	/**
+	 * Identifies an object by its identity, as opposed to its equality.
+	 */
+	private static final class IdentityKey
+	{
+		private final Object object;
+
+		IdentityKey( Object object )
+		{
+			this.object = object;
+		}
+
+		@Override public boolean equals( Object other )
+		{
+			return other instanceof IdentityKey otherKey && otherKey.object == object;
+		}
+
+		@Override public int hashCode()
+		{
+			return System.identityHashCode( object );
+		}
+	}
+}
@@ -7,37 +7,39 @@
 
 package io.github.mikenakis.bathyscaphe.internal;
 
+import io.github.mikenakis.bathyscaphe.AssessmentBudget;
+import io.github.mikenakis.bathyscaphe.Decomposer;
 import io.github.mikenakis.bathyscaphe.ImmutabilitySelfAssessable;
+import io.github.mikenakis.bathyscaphe.IndexedDecomposer;
+import io.github.mikenakis.bathyscaphe.QueueFullPolicy;
 import io.github.mikenakis.bathyscaphe.internal.assessments.ImmutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.InconclusiveObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.MutableObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.ObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableArrayElementMutableObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableClassMutableObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableComponentMutableObjectAssessment;
-import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableFieldValueMutableObjectAssessment;
-import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableSuperObjectMutableObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.NonEmptyArrayMutableObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.SelfAssessedMutableObjectAssessment;
-import io.github.mikenakis.bathyscaphe.internal.helpers.IterableOnArrayObject;
-import io.github.mikenakis.bathyscaphe.internal.mykit.MyKit;
-import io.github.mikenakis.bathyscaphe.internal.mykit.collections.IdentityLinkedHashSet;
+import io.github.mikenakis.bathyscaphe.internal.mykit.collections.OpenAddressingIdentitySet;
+import io.github.mikenakis.bathyscaphe.internal.mykit.collections.StripedIdentitySet;
+import io.github.mikenakis.bathyscaphe.internal.mykit.collections.WeakIdentityCache;
 import io.github.mikenakis.bathyscaphe.internal.type.TypeAssessor;
-import io.github.mikenakis.bathyscaphe.internal.type.assessments.ImmutableTypeAssessment;
-import io.github.mikenakis.bathyscaphe.internal.type.assessments.TypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.ArrayMutableTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.MutableTypeAssessment;
-import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ArrayOfProvisoryElementTypeProvisoryTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.CompositeProvisoryTypeAssessment;
-import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ExtensibleProvisoryTypeAssessment;
-import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.MultiReasonProvisoryTypeAssessment;
-import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ProvisoryFieldProvisoryTypeAssessment;
-import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ProvisorySuperclassProvisoryTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ProvisoryTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.SelfAssessableProvisoryTypeAssessment;
-import io.github.mikenakis.bathyscaphe.internal.type.field.assessments.nonimmutable.provisory.ProvisoryFieldTypeProvisoryFieldAssessment;
 
 import java.lang.reflect.Array;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 /**
  * Deeply assesses the immutability of objects. DO NOT USE; FOR INTERNAL USE ONLY.
@@ -47,13 +49,167 @@ import java.util.Set;
 public final class ObjectAssessor
 {
 	public static final ObjectAssessor instance = new ObjectAssessor();
+	private static final int defaultMaximumPendingAsyncAssessmentCount = 1024;
 
 	private final TypeAssessor typeAssessor = TypeAssessor.create();
 
+	/**
+	 * PEARL: A {@link ClassValue} does not prevent the class from being unloaded, unlike a map keyed by class would.
+	 */
+	private final ClassValue<AssessmentPlan> plans = new ClassValue<>()
+	{
+		@Override protected AssessmentPlan computeValue( Class<?> type )
+		{
+			return AssessmentPlan.of( type, typeAssessor.assess( type ) );
+		}
+	};
+
+	/**
+	 * The number of instances of a class that must be assessed before the assessment of further instances of that class gets specialized.
+	 * <p>
+	 * PEARL: specialization does not generate code; it switches the provisory fields of the class to inline caches of the plans of the classes of their
+	 * values. Generating a hidden class per assessed class via {@link java.lang.invoke.MethodHandles.Lookup#defineHiddenClass} was considered and dropped:
+	 * the JDK has no public API for emitting bytecode before the class-file API of JDK 22, so it would take either a bytecode library as a new dependency
+	 * or a hand-written class-file emitter; a hidden class that reads private fields must be defined as a nestmate of the assessed class, which requires a
+	 * private lookup in it, so it would not work for classes of modules that have not been opened; and the fields are already read through
+	 * {@link java.lang.invoke.MethodHandle}s which the JIT compiler inlines, so the generated code would mainly save the interpretation of the plan.
+	 */
+	private volatile int specializationThreshold = 100;
+
+	/**
+	 * The number of components of a composite, or elements of an invariable array, above which parallel assessment splits them into chunks.
+	 */
+	private volatile int parallelSplitThreshold = 10_000;
+
+	/**
+	 * Objects already proven to be immutable, or {@code null} if caching is disabled.
+	 */
+	private volatile WeakIdentityCache immutableObjectCache;
+
+	/**
+	 * Whether the provisory fields of an object are visited in order of how often they have been found to be the cause of a mutable verdict, rather than in
+	 * declaration order.
+	 */
+	private volatile boolean adaptiveFieldOrdering;
+
+	private volatile boolean detachedDiagnostics;
+	private volatile boolean stacklessExceptions;
+
+	/**
+	 * Carries out asynchronous assessments, or {@code null} if none have been requested yet.
+	 */
+	private volatile AsyncAssessor asyncAssessor;
+
+	private final ThreadLocal<Traversal> traversals = ThreadLocal.withInitial( Traversal::new );
+
 	private ObjectAssessor()
 	{
 	}
 
+	public void setSpecializationThreshold( int specializationThreshold )
+	{
+		assert specializationThreshold >= 0;
+		this.specializationThreshold = specializationThreshold;
+	}
+
+	public int specializationThreshold()
+	{
+		return specializationThreshold;
+	}
+
+	/**
+	 * Tells whether the plan for a class of component is in the inline cache of a composite class.
+	 */
+	public boolean isComponentPlanCached( Class<?> compositeClass, Class<?> componentClass )
+	{
+		AssessmentPlan compositePlan = plans.get( compositeClass );
+		assert compositePlan.kind == AssessmentPlan.Kind.Composite;
+		return compositePlan.componentPlanCache.contains( componentClass );
+	}
+
+	public void setParallelSplitThreshold( int parallelSplitThreshold )
+	{
+		assert parallelSplitThreshold > 0;
+		this.parallelSplitThreshold = parallelSplitThreshold;
+	}
+
+	public void setDetachedDiagnostics( boolean detachedDiagnostics )
+	{
+		this.detachedDiagnostics = detachedDiagnostics;
+	}
+
+	public boolean detachedDiagnostics()
+	{
+		return detachedDiagnostics;
+	}
+
+	public void setStacklessExceptions( boolean stacklessExceptions )
+	{
+		this.stacklessExceptions = stacklessExceptions;
+	}
+
+	public void setAdaptiveFieldOrdering( boolean adaptiveFieldOrdering )
+	{
+		this.adaptiveFieldOrdering = adaptiveFieldOrdering;
+	}
+
+	public boolean adaptiveFieldOrdering()
+	{
+		return adaptiveFieldOrdering;
+	}
+
+	public boolean stacklessExceptions()
+	{
+		return stacklessExceptions;
+	}
+
+	public void setAsyncAssessor( AsyncAssessor asyncAssessor )
+	{
+		this.asyncAssessor = asyncAssessor;
+	}
+
+	/**
+	 * Obtains the {@link AsyncAssessor}, creating the default one, which uses virtual threads, if none has been set.
+	 */
+	public AsyncAssessor asyncAssessor()
+	{
+		AsyncAssessor asyncAssessor = this.asyncAssessor;
+		if( asyncAssessor == null )
+		{
+			synchronized( this )
+			{
+				asyncAssessor = this.asyncAssessor;
+				if( asyncAssessor == null )
+				{
+					asyncAssessor = new AsyncAssessor( Executors.newVirtualThreadPerTaskExecutor(), defaultMaximumPendingAsyncAssessmentCount, QueueFullPolicy.Abort );
+					this.asyncAssessor = asyncAssessor;
+				}
+			}
+		}
+		return asyncAssessor;
+	}
+
+	/**
+	 * Enables caching of objects proven to be immutable, or replaces the existing cache with a new, empty one.
+	 */
+	public void enableImmutableObjectCache( int maximumSize )
+	{
+		immutableObjectCache = new WeakIdentityCache( maximumSize );
+	}
+
+	public void disableImmutableObjectCache()
+	{
+		immutableObjectCache = null;
+	}
+
+	/**
+	 * Returns the cache of objects proven to be immutable, or {@code null} if caching is disabled.
+	 */
+	public WeakIdentityCache immutableObjectCache()
+	{
+		return immutableObjectCache;
+	}
+
 	public void addImmutablePreassessment( Class<?> jvmClass )
 	{
 		typeAssessor.addImmutablePreassessment( jvmClass );
@@ -64,66 +220,161 @@ public final class ObjectAssessor
 		typeAssessor.addThreadSafePreassessment( jvmClass );
 	}
 
+	public <T, E> void addCompositePreassessment( Class<T> jvmClass, Decomposer<T,E> decomposer )
+	{
+		typeAssessor.addCompositePreassessment( jvmClass, decomposer );
+	}
+
 	public ObjectAssessment assess( Object object )
 	{
-		Set<Object> visitedValues = new IdentityLinkedHashSet<>();
-		return assessRecursively( object, visitedValues );
+		return traversal().assess( object, null, false, null );
+	}
+
+	/**
+	 * Same as {@link #assess(Object)}, but abandons the assessment and returns an {@link InconclusiveObjectAssessment} if the budget is exceeded.
+	 */
+	public ObjectAssessment assess( Object object, AssessmentBudget budget )
+	{
+		return traversal().assess( object, null, false, budget );
 	}
 
-	private <T> ObjectAssessment assessRecursively( T object, Set<Object> visitedObjects )
+	/**
+	 * Assesses an object by its class alone, without looking into its fields or components. Objects of classes which are not mutable regardless of
+	 * content are considered immutable; arrays are considered immutable only if empty.
+	 */
+	public ObjectAssessment assessShallowly( Object object )
 	{
 		if( object == null )
 			return ImmutableObjectAssessment.instance;
-		if( visitedObjects.contains( object ) )
-			return ImmutableObjectAssessment.instance;
-		visitedObjects.add( object );
-		Class<T> objectClass = MyKit.getClass( object );
-		TypeAssessment typeAssessment = typeAssessor.assess( objectClass );
-		return assessRecursively( object, typeAssessment, visitedObjects );
+		AssessmentPlan.Kind kind = plans.get( object.getClass() ).kind;
+		if( kind == AssessmentPlan.Kind.Mutable || kind == AssessmentPlan.Kind.Array )
+			return assess( object ); //this does not go any deeper than the object itself.
+		return ImmutableObjectAssessment.instance;
 	}
 
-	private <T> ObjectAssessment assessRecursively( T object, TypeAssessment typeAssessment, Set<Object> visitedValues )
+	/**
+	 * Determines whether an object is immutable, without explaining why not. Allocates nothing if the object is immutable.
+	 */
+	public boolean isImmutable( Object object )
 	{
-		//IntellijIdea blooper: good code red: Currently, (August 2022) IntellijIdea does not know anything about JDK 19, and it is not smart enough to
-		//figure out that feature-wise it must be a superset of the last JDK that it knows, which is JDK 17.
-		//As a result, it marks the following code with "Patterns in switch are not supported at language level '19'", which is just plain wrong.
-		return switch( typeAssessment )
+		return traversal().assess( object, null, true, null ) instanceof ImmutableObjectAssessment;
+	}
+
+	/**
+	 * Determines whether an object is thread-safe, without explaining why not. Allocates nothing if the object is thread-safe.
+	 */
+	public boolean isThreadSafe( Object object )
+	{
+		//The thread-safety of a mutable object is that of its class, so the object needs to be assessed only if its class is not thread-safe.
+		if( object == null || plans.get( object.getClass() ).threadSafe )
+			return true;
+		return isImmutable( object );
+	}
+
+	/**
+	 * Assesses many objects, remembering the objects that have been proven immutable, so that subgraphs shared between the objects are assessed only once.
+	 *
+	 * @param objects          the objects to assess.
+	 * @param parallel         whether to assess multiple objects at the same time, using the common {@link ForkJoinPool}.
+	 * @param progressListener invoked after the assessment of each object, with the number of objects assessed so far; if {@code parallel} is
+	 *                         {@code true}, it is invoked from multiple threads.
+	 *
+	 * @return the assessments of the mutable objects, in the order of the objects.
+	 */
+	public List<MutableObjectAssessment> assessAll( Stream<?> objects, boolean parallel, LongConsumer progressListener )
+	{
+		StripedIdentitySet provenImmutableObjects = new StripedIdentitySet();
+		AtomicLong assessedObjectCount = new AtomicLong();
+		Stream<?> stream = parallel ? objects.parallel() : objects.sequential();
+		return stream //
+			.map( object -> //
 			{
-				case ImmutableTypeAssessment ignore -> ImmutableObjectAssessment.instance;
-				//Class is extensible but otherwise immutable, and object is of this exact class and not of a further derived class, so object is immutable.
-				case ExtensibleProvisoryTypeAssessment ignore -> ImmutableObjectAssessment.instance;
-				case CompositeProvisoryTypeAssessment<?,?> provisoryCompositeAssessment -> assessComposite( object, provisoryCompositeAssessment, visitedValues );
-				case SelfAssessableProvisoryTypeAssessment selfAssessableAssessment -> assessSelfAssessable( selfAssessableAssessment, (ImmutabilitySelfAssessable)object );
-				case MultiReasonProvisoryTypeAssessment multiReasonAssessment -> assessMultiReason( object, multiReasonAssessment, visitedValues );
-				case ProvisorySuperclassProvisoryTypeAssessment provisorySuperclassAssessment -> assessSuperObject( object, provisorySuperclassAssessment, provisorySuperclassAssessment.superclassAssessment, visitedValues );
-				case ProvisoryFieldProvisoryTypeAssessment provisoryFieldAssessment -> assessField( object, provisoryFieldAssessment, provisoryFieldAssessment.fieldAssessment, visitedValues );
-				case ArrayMutableTypeAssessment arrayAssessment -> assessArray( object, arrayAssessment );
-				case MutableTypeAssessment mutableTypeAssessment -> new MutableClassMutableObjectAssessment( object, mutableTypeAssessment );
-				default -> throw new AssertionError( typeAssessment );
-			};
+				ObjectAssessment assessment = traversal().assess( object, provenImmutableObjects, false, null );
+				progressListener.accept( assessedObjectCount.incrementAndGet() );
+				return assessment;
+			} ) //
+			.filter( assessment -> assessment instanceof MutableObjectAssessment ) //
+			.map( assessment -> (MutableObjectAssessment)assessment ) //
+			.toList();
 	}
 
-	private static ObjectAssessment assessArray( Object arrayObject, ArrayMutableTypeAssessment mutableArrayAssessment )
+	/**
+	 * Begins an assessment which is carried out in slices, so that the verdict on a huge object graph can be reached without blocking for long.
+	 */
+	public IncrementalTraversal beginIncrementalAssessment( Object object )
 	{
-		if( Array.getLength( arrayObject ) == 0 )
-			return ImmutableObjectAssessment.instance;
-		return new NonEmptyArrayMutableObjectAssessment( arrayObject, mutableArrayAssessment );
+		return new IncrementalTraversal( object );
 	}
 
-	private <T, E> ObjectAssessment assessComposite( T compositeObject, CompositeProvisoryTypeAssessment<?,?> wildcardTypeAssessment, Set<Object> visitedValues )
+	/**
+	 * An assessment which is carried out in slices. Has its own {@link Traversal}, whose stack and set of visited objects survive between slices.
+	 * <p>
+	 * DO NOT USE; FOR INTERNAL USE ONLY.
+	 */
+	public final class IncrementalTraversal
 	{
-		@SuppressWarnings( "unchecked" ) CompositeProvisoryTypeAssessment<T,E> typeAssessment = (CompositeProvisoryTypeAssessment<T,E>)wildcardTypeAssessment;
-		Iterable<E> iterableObject = typeAssessment.decomposer.decompose( compositeObject );
-		int index = 0;
-		for( var element : iterableObject )
+		private final Object object;
+		private final Traversal traversal = new Traversal();
+
+		private IncrementalTraversal( Object object )
 		{
-			ObjectAssessment elementAssessment = assessRecursively( element, visitedValues );
-			if( elementAssessment instanceof MutableObjectAssessment mutableObjectAssessment )
-				return new MutableComponentMutableObjectAssessment<>( compositeObject, typeAssessment, index, mutableObjectAssessment );
-			assert elementAssessment instanceof ImmutableObjectAssessment;
-			index++;
+			this.object = object;
+			traversal.beginIncremental();
 		}
-		return ImmutableObjectAssessment.instance;
+
+		/**
+		 * Carries out a slice of the assessment.
+		 *
+		 * @param maximumObjectCount the maximum number of objects to visit in this slice.
+		 *
+		 * @return the assessment of the object, or {@code null} if the slice ended before the assessment was complete.
+		 */
+		public ObjectAssessment step( long maximumObjectCount )
+		{
+			return traversal.resume( object, maximumObjectCount );
+		}
+
+		public long visitedObjectCount()
+		{
+			return traversal.visitedObjectCount();
+		}
+
+		/**
+		 * Abandons the assessment, releasing the objects that it references.
+		 */
+		public void cancel()
+		{
+			traversal.endIncremental();
+		}
+	}
+
+	private Traversal traversal()
+	{
+		Traversal traversal = traversals.get();
+		//The traversal of this thread may already be in use if a self-assessable object that is being assessed invokes an assessment of its own.
+		if( traversal.busy )
+			traversal = new Traversal();
+		return traversal;
+	}
+
+	/**
+	 * Same as {@link #assess(Object)}, but uses all threads of the given {@link ForkJoinPool}.
+	 * <p>
+	 * The parallel traversal only establishes whether the object is immutable; if it is not, the object is assessed once more sequentially, so that the
+	 * resulting assessment explains the same mutable path that {@link #assess(Object)} would have reported.
+	 */
+	public ObjectAssessment assessInParallel( Object object, ForkJoinPool forkJoinPool )
+	{
+		if( new ParallelTraversal( plans, parallelSplitThreshold, immutableObjectCache ).isImmutable( object, forkJoinPool ) )
+			return ImmutableObjectAssessment.instance;
+		return assess( object );
+	}
+
+	private static ObjectAssessment assessArray( Object arrayObject, ArrayMutableTypeAssessment mutableArrayAssessment )
+	{
+		if( Array.getLength( arrayObject ) == 0 )
+			return ImmutableObjectAssessment.instance;
+		return new NonEmptyArrayMutableObjectAssessment( arrayObject, mutableArrayAssessment );
 	}
 
 	private static ObjectAssessment assessSelfAssessable( SelfAssessableProvisoryTypeAssessment typeAssessment, ImmutabilitySelfAssessable selfAssessableObject )
@@ -133,62 +384,583 @@ public final class ObjectAssessor
 		return new SelfAssessedMutableObjectAssessment( typeAssessment, selfAssessableObject );
 	}
 
-	private ObjectAssessment assessMultiReason( Object object, MultiReasonProvisoryTypeAssessment multiReasonProvisoryTypeAssessment, Set<Object> visitedValues )
+	/**
+	 * Traverses an object graph depth-first, using an explicit stack of {@link Frame}s instead of the Java stack, so that the depth of the graph is only
+	 * limited by the heap. Each thread reuses a single instance, so its stack and its set of visited objects are only allocated once.
+	 */
+	private final class Traversal
 	{
-		for( ProvisoryTypeAssessment provisoryReason : multiReasonProvisoryTypeAssessment.reasons )
+		private static final int initialFrameCount = 16;
+		private static final int maximumRetainedFrameCount = 1024;
+
+		private final OpenAddressingIdentitySet visitedObjects = new OpenAddressingIdentitySet();
+		private Frame[] frames = new Frame[initialFrameCount];
+		private int depth;
+		private StripedIdentitySet provenImmutableObjects;
+		private WeakIdentityCache immutableObjectCache;
+		private boolean verdictOnly;
+		private boolean adaptiveFieldOrdering;
+		private AssessmentBudget budget;
+		private long deadline;
+		private long startTime;
+		private long visitedObjectCount;
+		private int reachedDepth;
+		private AssessmentBudget.Limit exceededLimit;
+		private Object suspendedObject; //the object which was being visited when a limit of the budget was exceeded.
+		private AssessmentPlan suspendedPlan;
+		boolean busy;
+
+		/**
+		 * Assesses an object.
+		 *
+		 * @param provenImmutableObjects objects already known to be immutable, which need not be visited; if the object turns out to be immutable, all
+		 *                               objects visited during its assessment are added to it. Can be {@code null}.
+		 * @param verdictOnly            if {@code true}, a mutable assessment is not wrapped in the assessments explaining how the mutable object was
+		 *                               reached, so it is only good for telling that the object is mutable.
+		 * @param budget                 limits on the work that may be done, or {@code null} for no limits.
+		 */
+		ObjectAssessment assess( Object object, StripedIdentitySet provenImmutableObjects, boolean verdictOnly, AssessmentBudget budget )
+		{
+			begin( provenImmutableObjects, verdictOnly, budget );
+			try
+			{
+				ObjectAssessment assessment = run( visit( object ) );
+				if( assessment == null )
+					return new InconclusiveObjectAssessment( object, exceededLimit, visitedObjectCount, reachedDepth, System.nanoTime() - startTime );
+				return conclude( assessment );
+			}
+			finally
+			{
+				end();
+			}
+		}
+
+		/**
+		 * Begins an incremental assessment of an object, which is then carried out in slices, by invoking {@link #resume(Object, long)} until it returns
+		 * non-{@code null}.
+		 */
+		void beginIncremental()
+		{
+			begin( null, false, AssessmentBudget.unlimited.withMaximumObjectCount( 0 ) );
+		}
+
+		/**
+		 * Carries out a slice of an incremental assessment.
+		 *
+		 * @param rootObject         the object being assessed.
+		 * @param maximumObjectCount the maximum number of objects to visit in this slice.
+		 *
+		 * @return the assessment of the object, or {@code null} if the slice ended before the assessment was complete.
+		 */
+		ObjectAssessment resume( Object rootObject, long maximumObjectCount )
+		{
+			assert busy;
+			assert maximumObjectCount > 0;
+			try
+			{
+				long limit = visitedObjectCount + maximumObjectCount;
+				budget = budget.withMaximumObjectCount( limit < 0 ? Long.MAX_VALUE : limit ); //guard against overflow.
+				ObjectAssessment assessment;
+				if( exceededLimit == null )
+					assessment = visit( rootObject );
+				else
+				{
+					//Proceed with the object that the previous slice stopped at. It has already been marked as visited, so it must not be visited again.
+					//If it was an object which needed no visiting, then there is no plan for it, and it is immutable.
+					assert exceededLimit == AssessmentBudget.Limit.ObjectCount;
+					exceededLimit = null;
+					visitedObjectCount++;
+					assessment = suspendedPlan == null ? ImmutableObjectAssessment.instance : dispatch( suspendedObject, suspendedPlan );
+					suspendedObject = null;
+					suspendedPlan = null;
+				}
+				assessment = run( assessment );
+				return assessment == null ? null : conclude( assessment );
+			}
+			finally
+			{
+				//Unless the slice ended because it reached its limit, the assessment is over, either because it was completed, or because an exception was
+				//thrown, e.g. by a decomposer.
+				if( exceededLimit == null )
+					end();
+			}
+		}
+
+		/**
+		 * Ends an incremental assessment, whether it has been completed or not.
+		 */
+		void endIncremental()
+		{
+			if( busy )
+				end();
+		}
+
+		long visitedObjectCount()
+		{
+			return visitedObjectCount;
+		}
+
+		private void begin( StripedIdentitySet provenImmutableObjects, boolean verdictOnly, AssessmentBudget budget )
+		{
+			assert !busy;
+			busy = true;
+			this.provenImmutableObjects = provenImmutableObjects;
+			this.verdictOnly = verdictOnly;
+			adaptiveFieldOrdering = ObjectAssessor.this.adaptiveFieldOrdering;
+			this.budget = budget;
+			if( budget != null )
+			{
+				startTime = System.nanoTime();
+				deadline = budget.timeLimit() == null ? Long.MAX_VALUE : startTime + budget.timeLimit().toNanos();
+				visitedObjectCount = 0;
+				reachedDepth = 0;
+				exceededLimit = null;
+			}
+			immutableObjectCache = ObjectAssessor.this.immutableObjectCache;
+		}
+
+		private ObjectAssessment conclude( ObjectAssessment assessment )
+		{
+			//If the object is immutable, then so is everything reachable from it, and that includes everything that was visited.
+			if( assessment instanceof ImmutableObjectAssessment )
+			{
+				if( provenImmutableObjects != null )
+					visitedObjects.forEach( provenImmutableObjects::add );
+				if( immutableObjectCache != null )
+					visitedObjects.forEach( immutableObjectCache::add );
+			}
+			return assessment;
+		}
+
+		private void end()
+		{
+			while( depth > 0 )
+				frames[--depth].clear();
+			//Do not hold on to the stack of an exceptionally deep traversal for the rest of the life of the thread.
+			if( frames.length > maximumRetainedFrameCount )
+				frames = new Frame[initialFrameCount];
+			visitedObjects.clear();
+			provenImmutableObjects = null;
+			immutableObjectCache = null;
+			budget = null;
+			exceededLimit = null;
+			suspendedObject = null;
+			suspendedPlan = null;
+			busy = false;
+		}
+
+		/**
+		 * Proceeds with a traversal until it is complete, or until a limit of the budget is exceeded.
+		 *
+		 * @param assessment the assessment of the object that was last visited, or {@code null} if a frame was pushed for it.
+		 *
+		 * @return the assessment of the root object, or {@code null} if a limit of the budget was exceeded.
+		 */
+		private ObjectAssessment run( ObjectAssessment assessment )
+		{
+			while( depth > 0 )
+			{
+				if( assessment instanceof MutableObjectAssessment mutableObjectAssessment )
+				{
+					if( adaptiveFieldOrdering )
+						recordMutableVerdict();
+					return verdictOnly ? mutableObjectAssessment : unwind( mutableObjectAssessment );
+				}
+				if( exceededLimit != null )
+					return null;
+				assessment = advance( frames[depth - 1] );
+			}
+			if( exceededLimit != null )
+				return null;
+			assert assessment != null;
+			return assessment;
+		}
+
+		/**
+		 * Charges the visiting of an object to the budget.
+		 *
+		 * @return {@code true} if the budget allows the object to be visited; {@code false} if a limit has been exceeded, in which case
+		 * 	{@link #exceededLimit} has been set.
+		 */
+		private boolean charge()
+		{
+			visitedObjectCount++;
+			reachedDepth = Math.max( reachedDepth, depth );
+			if( visitedObjectCount > budget.maximumObjectCount() )
+			{
+				visitedObjectCount--; //the object will not be visited after all.
+				exceededLimit = AssessmentBudget.Limit.ObjectCount;
+			}
+			else if( depth > budget.maximumDepth() )
+				exceededLimit = AssessmentBudget.Limit.Depth;
+			//Looking at the clock and at the interrupted status of the thread is not free, so it is only done every so many objects.
+			else if( (visitedObjectCount & 1023) == 0 && System.nanoTime() - deadline > 0 )
+				exceededLimit = AssessmentBudget.Limit.Time;
+			else if( (visitedObjectCount & 1023) == 0 && budget.interruptible() && Thread.currentThread().isInterrupted() )
+				exceededLimit = AssessmentBudget.Limit.Interruption;
+			return exceededLimit == null;
+		}
+
+		/**
+		 * Lets the plan of each object on the stack know which one of its fields led to the mutable object.
+		 */
+		private void recordMutableVerdict()
+		{
+			for( int i = 0; i < depth; i++ )
+			{
+				Frame frame = frames[i];
+				if( frame.kind == Frame.Kind.Fields )
+					frame.plan.recordMutableVerdict( frame.fieldSteps[frame.index - 1] );
+			}
+		}
+
+		/**
+		 * Charges to the budget an object which needs no visiting: a null, an object of an immutable class, or an object already known to be immutable.
+		 * <p>
+		 * PEARL: such objects are cheap, but there can be huge numbers of them, so if they were not charged, a huge collection of strings would be walked
+		 * to the end regardless of the limits of the budget.
+		 *
+		 * @return {@code true} if the budget allows proceeding; {@code false} if a limit has been exceeded, in which case the traversal must stop, and the
+		 * 	object counts as the suspended object, which is immutable.
+		 */
+		private boolean chargeLeaf()
+		{
+			if( budget == null || charge() )
+				return true;
+			suspendedObject = null;
+			suspendedPlan = null;
+			return false;
+		}
+
+		/**
+		 * Same as {@link #chargeLeaf()}, but returns the assessment of the object, or {@code null} if a limit has been exceeded.
+		 */
+		private ObjectAssessment leaf()
+		{
+			return chargeLeaf() ? ImmutableObjectAssessment.instance : null;
+		}
+
+		/**
+		 * Wraps the assessment of a mutable object in the assessments of all objects on the stack, so as to explain how it was reached.
+		 */
+		private MutableObjectAssessment unwind( MutableObjectAssessment mutableObjectAssessment )
+		{
+			while( depth > 0 )
+			{
+				Frame frame = frames[--depth];
+				mutableObjectAssessment = frame.mutableAssessment( mutableObjectAssessment );
+				frame.clear();
+			}
+			return mutableObjectAssessment;
+		}
+
+		/**
+		 * Assesses an object, if it is possible to do so without visiting other objects; otherwise, pushes a frame for visiting the other objects.
+		 *
+		 * @return the assessment of the object, or {@code null} if a frame was pushed.
+		 */
+		private ObjectAssessment visit( Object object )
 		{
-			//IntellijIdea blooper: good code red: Currently, (August 2022) IntellijIdea does not know anything about JDK 19, and it is not smart enough to
-			//figure out that feature-wise it must be a superset of the last JDK that it knows, which is JDK 17.
-			//As a result, it marks the following code with "Patterns in switch are not supported at language level '19'", which is just plain wrong.
-			ObjectAssessment objectAssessment = switch( provisoryReason )
+			if( object == null )
+				return leaf();
+			return visit( object, plans.get( object.getClass() ) );
+		}
+
+		private ObjectAssessment visit( Object object, AssessmentPlan plan )
+		{
+			//An object of an immutable class has nothing further to visit, so there is no need to even mark it as visited, nor to look it up.
+			if( plan.kind == AssessmentPlan.Kind.Immutable )
+				return leaf();
+			if( provenImmutableObjects != null && provenImmutableObjects.contains( object ) )
+				return leaf();
+			if( immutableObjectCache != null && immutableObjectCache.contains( object ) )
+				return leaf();
+			if( !visitedObjects.add( object ) )
+				return leaf();
+			//When a limit is exceeded, we pretend that a frame was pushed, so that the traversal stops advancing and notices.
+			if( budget != null && !charge() )
+			{
+				suspendedObject = object;
+				suspendedPlan = plan;
+				return null;
+			}
+			return dispatch( object, plan );
+		}
+
+		private ObjectAssessment dispatch( Object object, AssessmentPlan plan )
+		{
+			return switch( plan.kind )
 				{
-					case ProvisorySuperclassProvisoryTypeAssessment provisorySuperclassAssessment -> assessSuperObject( object, multiReasonProvisoryTypeAssessment, provisorySuperclassAssessment.superclassAssessment, visitedValues );
-					case ProvisoryFieldProvisoryTypeAssessment provisoryFieldAssessment -> assessField( object, multiReasonProvisoryTypeAssessment, provisoryFieldAssessment.fieldAssessment, visitedValues );
-					default -> throw new AssertionError( provisoryReason );
+					case Immutable -> throw new AssertionError();
+					case Mutable -> new MutableClassMutableObjectAssessment( object, (MutableTypeAssessment)plan.typeAssessment );
+					case Array -> assessArray( object, (ArrayMutableTypeAssessment)plan.typeAssessment );
+					case SelfAssessable -> assessSelfAssessable( (SelfAssessableProvisoryTypeAssessment)plan.typeAssessment, (ImmutabilitySelfAssessable)object );
+					case Composite -> pushComposite( object, plan );
+					case Fields -> pushFields( object, plan );
 				};
-			if( !(objectAssessment instanceof ImmutableObjectAssessment) )
-				return objectAssessment;
 		}
-		return ImmutableObjectAssessment.instance;
-	}
 
-	private ObjectAssessment assessSuperObject( Object object, ProvisoryTypeAssessment provisoryTypeAssessment, ProvisoryTypeAssessment superTypeAssessment, Set<Object> visitedValues )
-	{
-		ObjectAssessment superObjectAssessment = assessRecursively( object, superTypeAssessment, visitedValues );
-		if( superObjectAssessment instanceof MutableObjectAssessment mutableSuperObjectAssessment )
-			return new MutableSuperObjectMutableObjectAssessment( object, provisoryTypeAssessment, mutableSuperObjectAssessment );
-		assert superObjectAssessment instanceof ImmutableObjectAssessment;
-		return superObjectAssessment;
-	}
+		private <T, E> ObjectAssessment pushComposite( T compositeObject, AssessmentPlan plan )
+		{
+			@SuppressWarnings( "unchecked" ) CompositeProvisoryTypeAssessment<T,E> typeAssessment = (CompositeProvisoryTypeAssessment<T,E>)plan.typeAssessment;
+			Decomposer<T,E> decomposer = typeAssessment.decomposer;
+			if( decomposer instanceof IndexedDecomposer<T,E> indexedDecomposer )
+			{
+				int size = indexedDecomposer.size( compositeObject );
+				Frame frame = push( Frame.Kind.IndexedComposite, compositeObject );
+				frame.plan = plan;
+				frame.typeAssessment = typeAssessment;
+				frame.size = size;
+				return null;
+			}
+			Iterable<E> iterableObject = decomposer.decompose( compositeObject );
+			Frame frame = push( Frame.Kind.Composite, compositeObject );
+			frame.plan = plan;
+			frame.typeAssessment = typeAssessment;
+			frame.iterator = iterableObject.iterator();
+			return null;
+		}
 
-	private ObjectAssessment assessField( Object object, ProvisoryTypeAssessment provisoryTypeAssessment, ProvisoryFieldTypeProvisoryFieldAssessment provisoryFieldAssessment, //
-		Set<Object> visitedValues )
-	{
-		Object fieldValue = MyKit.getFieldValue( object, provisoryFieldAssessment.field );
-		//IntellijIdea blooper: good code red: Currently, (August 2022) IntellijIdea does not know anything about JDK 19, and it is not smart enough to
-		//figure out that feature-wise it must be a superset of the last JDK that it knows, which is JDK 17.
-		//As a result, it marks the following code with "Patterns in switch are not supported at language level '19'", which is just plain wrong.
-		ObjectAssessment fieldValueAssessment = switch( provisoryFieldAssessment.fieldTypeAssessment )
+		private ObjectAssessment pushFields( Object object, AssessmentPlan plan )
+		{
+			Frame frame = push( Frame.Kind.Fields, object );
+			frame.plan = plan;
+			frame.fieldSteps = adaptiveFieldOrdering ? plan.orderedFieldSteps() : plan.fieldSteps;
+			frame.specialized = plan.tierUp( specializationThreshold );
+			return null;
+		}
+
+		private ObjectAssessment pushInvariableArray( Object array, ProvisoryTypeAssessment arrayTypeAssessment )
+		{
+			Frame frame = push( Frame.Kind.InvariableArray, array );
+			frame.typeAssessment = arrayTypeAssessment;
+			//The element type of an invariable array is provisory, so it cannot be primitive.
+			frame.elements = (Object[])array;
+			return null;
+		}
+
+		private Frame push( Frame.Kind kind, Object object )
+		{
+			if( depth == frames.length )
+				frames = Arrays.copyOf( frames, depth * 2 );
+			Frame frame = frames[depth];
+			if( frame == null )
 			{
-				case ArrayOfProvisoryElementTypeProvisoryTypeAssessment assessment -> assessInvariableArray( fieldValue, assessment, visitedValues );
-				default -> assessRecursively( fieldValue, visitedValues );
-			};
-		if( fieldValueAssessment instanceof MutableObjectAssessment mutableFieldValueAssessment )
-			return new MutableFieldValueMutableObjectAssessment( object, provisoryTypeAssessment, provisoryFieldAssessment, mutableFieldValueAssessment );
-		assert fieldValueAssessment instanceof ImmutableObjectAssessment;
-		return ImmutableObjectAssessment.instance;
+				frame = new Frame();
+				frames[depth] = frame;
+			}
+			depth++;
+			frame.kind = kind;
+			frame.object = object;
+			frame.index = 0;
+			return frame;
+		}
+
+		/**
+		 * Proceeds with the next object referenced by the object of a frame, or pops the frame if there are no more objects.
+		 *
+		 * @return the assessment of the next object, or {@code null} if a frame was pushed.
+		 */
+		private ObjectAssessment advance( Frame frame )
+		{
+			switch( frame.kind )
+			{
+				case Fields ->
+				{
+					AssessmentPlan.FieldStep[] fieldSteps = frame.fieldSteps;
+					while( frame.index < fieldSteps.length )
+					{
+						AssessmentPlan.FieldStep fieldStep = fieldSteps[frame.index++];
+						Object fieldValue = fieldStep.accessor.get( frame.object );
+						if( fieldValue == null )
+						{
+							if( !chargeLeaf() )
+								return null;
+							continue;
+						}
+						ObjectAssessment fieldValueAssessment;
+						if( fieldStep.invariableArrayTypeAssessment != null )
+							fieldValueAssessment = pushInvariableArray( fieldValue, fieldStep.invariableArrayTypeAssessment );
+						else if( !frame.specialized )
+							fieldValueAssessment = visit( fieldValue );
+						else
+						{
+							AssessmentPlan fieldValuePlan = fieldStep.valuePlan( fieldValue.getClass(), plans );
+							//An immutable value has nothing further to visit, so there is no need to even mark it as visited.
+							if( fieldValuePlan.kind == AssessmentPlan.Kind.Immutable )
+							{
+								if( !chargeLeaf() )
+									return null;
+								continue;
+							}
+							fieldValueAssessment = visit( fieldValue, fieldValuePlan );
+						}
+						if( !(fieldValueAssessment instanceof ImmutableObjectAssessment) )
+							return fieldValueAssessment;
+					}
+				}
+				case Composite ->
+				{
+					PlanCache componentPlanCache = frame.plan.componentPlanCache;
+					Class<?> elementClass = null;
+					AssessmentPlan elementPlan = null;
+					while( frame.iterator.hasNext() )
+					{
+						Object element = frame.iterator.next();
+						frame.index++;
+						if( element == null )
+						{
+							if( !chargeLeaf() )
+								return null;
+							continue;
+						}
+						//Consecutive components are usually of the same class, in which case the plan of the previous component is reused, sparing a lookup.
+						if( element.getClass() != elementClass )
+						{
+							elementClass = element.getClass();
+							elementPlan = componentPlanCache.plan( elementClass, plans );
+						}
+						if( elementPlan.kind == AssessmentPlan.Kind.Immutable )
+						{
+							if( !chargeLeaf() )
+								return null;
+							continue;
+						}
+						ObjectAssessment elementAssessment = visit( element, elementPlan );
+						if( !(elementAssessment instanceof ImmutableObjectAssessment) )
+							return elementAssessment;
+					}
+				}
+				case IndexedComposite ->
+				{
+					PlanCache componentPlanCache = frame.plan.componentPlanCache;
+					Class<?> elementClass = null;
+					AssessmentPlan elementPlan = null;
+					while( frame.index < frame.size )
+					{
+						Object element = component( (CompositeProvisoryTypeAssessment<?,?>)frame.typeAssessment, frame.object, frame.index++ );
+						if( element == null )
+						{
+							if( !chargeLeaf() )
+								return null;
+							continue;
+						}
+						//Consecutive components are usually of the same class, in which case the plan of the previous component is reused, sparing a lookup.
+						if( element.getClass() != elementClass )
+						{
+							elementClass = element.getClass();
+							elementPlan = componentPlanCache.plan( elementClass, plans );
+						}
+						if( elementPlan.kind == AssessmentPlan.Kind.Immutable )
+						{
+							if( !chargeLeaf() )
+								return null;
+							continue;
+						}
+						ObjectAssessment elementAssessment = visit( element, elementPlan );
+						if( !(elementAssessment instanceof ImmutableObjectAssessment) )
+							return elementAssessment;
+					}
+				}
+				case InvariableArray ->
+				{
+					Object[] elements = frame.elements;
+					Class<?> elementClass = null;
+					AssessmentPlan elementPlan = null;
+					while( frame.index < elements.length )
+					{
+						Object element = elements[frame.index++];
+						if( element == null )
+						{
+							if( !chargeLeaf() )
+								return null;
+							continue;
+						}
+						//Consecutive elements are usually of the same class, in which case the plan of the previous element is reused, sparing a lookup.
+						if( element.getClass() != elementClass )
+						{
+							elementClass = element.getClass();
+							elementPlan = plans.get( elementClass );
+						}
+						if( elementPlan.kind == AssessmentPlan.Kind.Immutable )
+						{
+							if( !chargeLeaf() )
+								return null;
+							continue;
+						}
+						ObjectAssessment elementAssessment = visit( element, elementPlan );
+						if( !(elementAssessment instanceof ImmutableObjectAssessment) )
+							return elementAssessment;
+					}
+				}
+			}
+			assert frame == frames[depth - 1];
+			depth--;
+			frame.clear();
+			return ImmutableObjectAssessment.instance;
+		}
+
+		private static <T, E> E component( CompositeProvisoryTypeAssessment<?,?> wildcardTypeAssessment, Object compositeObject, int index )
+		{
+			@SuppressWarnings( "unchecked" ) CompositeProvisoryTypeAssessment<T,E> typeAssessment = (CompositeProvisoryTypeAssessment<T,E>)wildcardTypeAssessment;
+			@SuppressWarnings( "unchecked" ) T typedCompositeObject = (T)compositeObject;
+			return ((IndexedDecomposer<T,E>)typeAssessment.decomposer).component( typedCompositeObject, index );
+		}
 	}
 
-	private ObjectAssessment assessInvariableArray( Object array, ProvisoryTypeAssessment arrayTypeAssessment, Set<Object> visitedValues )
+	/**
+	 * An object on the stack of a {@link Traversal}, along with the progress made in visiting the objects that it references.
+	 */
+	private static final class Frame
 	{
-		int index = 0;
-		for( Object element : new IterableOnArrayObject( array ) )
+		enum Kind
 		{
-			ObjectAssessment elementAssessment = assessRecursively( element, visitedValues );
-			if( elementAssessment instanceof MutableObjectAssessment mutableElementAssessment )
-				return new MutableArrayElementMutableObjectAssessment( array, arrayTypeAssessment, index, mutableElementAssessment );
-			index++;
+			Fields,
+			Composite,
+			IndexedComposite,
+			InvariableArray
+		}
+
+		Kind kind;
+		Object object;
+		int index; //the number of referenced objects that have been taken so far; the last one taken is the one currently being visited.
+		AssessmentPlan plan; //for Fields, Composite and IndexedComposite
+		AssessmentPlan.FieldStep[] fieldSteps; //for Fields; the field steps of the plan, in the order in which they are being visited.
+		boolean specialized; //for Fields
+		ProvisoryTypeAssessment typeAssessment; //for Composite, IndexedComposite and InvariableArray
+		Iterator<?> iterator; //for Composite
+		int size; //for IndexedComposite
+		Object[] elements; //for InvariableArray
+
+		MutableObjectAssessment mutableAssessment( MutableObjectAssessment referencedObjectAssessment )
+		{
+			return switch( kind )
+				{
+					case Fields -> fieldSteps[index - 1].mutableAssessment( object, referencedObjectAssessment );
+					case Composite, IndexedComposite -> mutableComponentAssessment( object, (CompositeProvisoryTypeAssessment<?,?>)typeAssessment, index - 1, referencedObjectAssessment );
+					case InvariableArray -> new MutableArrayElementMutableObjectAssessment( object, typeAssessment, index - 1, referencedObjectAssessment );
+				};
+		}
+
+		private static <T, E> MutableObjectAssessment mutableComponentAssessment( Object compositeObject, CompositeProvisoryTypeAssessment<?,?> wildcardTypeAssessment, //
+			int elementIndex, MutableObjectAssessment elementAssessment )
+		{
+			@SuppressWarnings( "unchecked" ) CompositeProvisoryTypeAssessment<T,E> typeAssessment = (CompositeProvisoryTypeAssessment<T,E>)wildcardTypeAssessment;
+			@SuppressWarnings( "unchecked" ) T typedCompositeObject = (T)compositeObject;
+			return new MutableComponentMutableObjectAssessment<>( typedCompositeObject, typeAssessment, elementIndex, elementAssessment );
+		}
+
+		/**
+		 * PEARL: frames are reused, so they must let go of the objects that they reference, or else these objects will be kept alive by the thread.
+		 */
+		void clear()
+		{
+			object = null;
+			plan = null;
+			fieldSteps = null;
+			typeAssessment = null;
+			iterator = null;
+			elements = null;
 		}
-		return ImmutableObjectAssessment.instance;
 	}
 }
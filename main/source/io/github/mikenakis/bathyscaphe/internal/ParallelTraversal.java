@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal;
+
+import io.github.mikenakis.bathyscaphe.ImmutabilitySelfAssessable;
+import io.github.mikenakis.bathyscaphe.internal.mykit.collections.StripedIdentitySet;
+import io.github.mikenakis.bathyscaphe.internal.mykit.collections.WeakIdentityCache;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.CompositeProvisoryTypeAssessment;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Determines whether an object graph is immutable using all threads of a {@link ForkJoinPool}.
+ * <p>
+ * Only yields a verdict, not an explanation; when the verdict is "mutable", the caller is expected to re-assess the object sequentially in order to
+ * obtain the same explanation that a sequential assessment would have produced.
+ *
+ * @author michael.gr
+ */
+final class ParallelTraversal
+{
+	private final ClassValue<AssessmentPlan> plans;
+	private final int splitThreshold;
+	private final WeakIdentityCache immutableObjectCache;
+	private final StripedIdentitySet visitedObjects = new StripedIdentitySet();
+	private volatile boolean mutableFound;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param splitThreshold the number of components of a composite, or elements of an invariable array, above which they are split into chunks which
+	 *                       are assessed in parallel.
+	 * @param immutableObjectCache objects already proven to be immutable, which need not be visited, or {@code null} if caching is disabled.
+	 */
+	ParallelTraversal( ClassValue<AssessmentPlan> plans, int splitThreshold, WeakIdentityCache immutableObjectCache )
+	{
+		assert splitThreshold > 0;
+		this.plans = plans;
+		this.splitThreshold = splitThreshold;
+		this.immutableObjectCache = immutableObjectCache;
+	}
+
+	boolean isImmutable( Object object, ForkJoinPool forkJoinPool )
+	{
+		if( object == null )
+			return true;
+		ArrayDeque<Object> pendingObjects = new ArrayDeque<>();
+		pendingObjects.push( object );
+		forkJoinPool.invoke( new Task( pendingObjects, null ) );
+		return !mutableFound;
+	}
+
+	/**
+	 * Visits objects from a private stack of pending objects, handing half of the stack over to a new task whenever the pool appears to have idle threads.
+	 * <p>
+	 * Optionally also has a source of objects, which is a chunk of the components of a huge composite or of the elements of a huge array; the source is
+	 * drawn from only when the stack is empty, so as to keep the stack small.
+	 */
+	private final class Task extends RecursiveAction
+	{
+		private final ArrayDeque<Object> pendingObjects;
+		private final Spliterator<?> source;
+		private final List<Task> forkedTasks = new ArrayList<>();
+
+		Task( ArrayDeque<Object> pendingObjects, Spliterator<?> source )
+		{
+			this.pendingObjects = pendingObjects;
+			this.source = source;
+		}
+
+		@Override protected void compute()
+		{
+			if( source != null )
+				splitSource( source );
+			while( !mutableFound )
+			{
+				if( pendingObjects.isEmpty() && (source == null || !source.tryAdvance( this::push )) )
+					break;
+				if( pendingObjects.size() > 1 && getSurplusQueuedTaskCount() < 2 )
+					fork( new Task( split(), null ) );
+				if( !pendingObjects.isEmpty() )
+					visit( pendingObjects.pop() );
+			}
+			for( Task forkedTask : forkedTasks )
+				forkedTask.join();
+		}
+
+		private void fork( Task task )
+		{
+			task.fork();
+			forkedTasks.add( task );
+		}
+
+		/**
+		 * Splits off chunks from the front of a source and forks a new task for each one, until the source is small enough to be handled by this task.
+		 */
+		private void splitSource( Spliterator<?> source )
+		{
+			while( source.estimateSize() > splitThreshold )
+			{
+				Spliterator<?> prefix = source.trySplit();
+				if( prefix == null )
+					break;
+				fork( new Task( new ArrayDeque<>(), prefix ) );
+			}
+		}
+
+		private ArrayDeque<Object> split()
+		{
+			ArrayDeque<Object> result = new ArrayDeque<>();
+			for( int count = pendingObjects.size() / 2; count > 0; count-- )
+				result.push( pendingObjects.removeLast() );
+			return result;
+		}
+
+		private void visit( Object object )
+		{
+			//An object of an immutable class has nothing further to visit, so there is no need to even mark it as visited, which would take a lock.
+			AssessmentPlan plan = plans.get( object.getClass() );
+			if( plan.kind == AssessmentPlan.Kind.Immutable )
+				return;
+			if( immutableObjectCache != null && immutableObjectCache.contains( object ) )
+				return;
+			if( !visitedObjects.add( object ) )
+				return;
+			switch( plan.kind )
+			{
+				case Immutable -> throw new AssertionError( object );
+				case Mutable -> mutableFound = true;
+				case Array ->
+				{
+					if( Array.getLength( object ) != 0 )
+						mutableFound = true;
+				}
+				case SelfAssessable ->
+				{
+					if( !((ImmutabilitySelfAssessable)object).isImmutable() )
+						mutableFound = true;
+				}
+				case Composite -> pushComponents( object, (CompositeProvisoryTypeAssessment<?,?>)plan.typeAssessment );
+				case Fields ->
+				{
+					for( AssessmentPlan.FieldStep fieldStep : plan.fieldSteps )
+					{
+						Object fieldValue = fieldStep.accessor.get( object );
+						if( fieldValue == null )
+							continue;
+						if( fieldStep.invariableArrayTypeAssessment == null )
+							push( fieldValue );
+						else //PEARL: the element type of an invariable array is provisory, therefore not primitive, therefore the array is an Object[].
+							pushAll( Arrays.spliterator( (Object[])fieldValue ) );
+					}
+				}
+			}
+		}
+
+		private <T, E> void pushComponents( T compositeObject, CompositeProvisoryTypeAssessment<?,?> wildcardTypeAssessment )
+		{
+			@SuppressWarnings( "unchecked" ) CompositeProvisoryTypeAssessment<T,E> typeAssessment = (CompositeProvisoryTypeAssessment<T,E>)wildcardTypeAssessment;
+			pushAll( typeAssessment.decomposer.spliterate( compositeObject ) );
+		}
+
+		private void pushAll( Spliterator<?> spliterator )
+		{
+			if( spliterator.getExactSizeIfKnown() > splitThreshold )
+				fork( new Task( new ArrayDeque<>(), spliterator ) );
+			else
+				spliterator.forEachRemaining( this::push );
+		}
+
+		private void push( Object object )
+		{
+			if( object != null )
+				pendingObjects.push( object );
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * A polymorphic inline cache of {@link AssessmentPlan}s, for a single site at which objects are encountered, such as a provisory field, or the components
+ * of a composite.
+ * <p>
+ * The objects encountered at a single site are usually of one or a few classes, so the plans of the first few classes encountered are remembered, and
+ * looking them up again takes a short linear scan instead of a lookup in the shared {@link ClassValue}. If more classes than that are encountered, the site
+ * is deemed megamorphic, the cache is emptied for good, and all lookups go straight to the shared {@link ClassValue}.
+ * <p>
+ * PEARL: the cache belongs to the plan of a holder class, which is kept alive for as long as the holder class is, so if it were to hold on to a class
+ * loaded by some other class-loader, it would prevent that class-loader from being collected. (Think of a {@code List.of()} holding an instance of a
+ * class of a plugin.) So, the cache only holds weak references to the plans, each of which is kept alive by the shared {@link ClassValue} for exactly as
+ * long as its class is alive.
+ *
+ * @author michael.gr
+ */
+final class PlanCache
+{
+	static final int capacity = 4;
+
+	private Entries entries = Entries.empty;
+
+	PlanCache()
+	{
+	}
+
+	/**
+	 * Obtains the plan for an object of a given class, from the cache if the class has been encountered before at this site.
+	 */
+	AssessmentPlan plan( Class<?> objectClass, ClassValue<AssessmentPlan> plans )
+	{
+		Entries entries = this.entries;
+		for( WeakReference<AssessmentPlan> planReference : entries.planReferences )
+		{
+			AssessmentPlan plan = planReference.get();
+			if( plan != null && plan.type == objectClass )
+				return plan;
+		}
+		AssessmentPlan plan = plans.get( objectClass );
+		if( entries != Entries.megamorphic )
+			this.entries = entries.with( plan );
+		return plan;
+	}
+
+	/**
+	 * Tells whether the plan for a given class is in the cache.
+	 */
+	boolean contains( Class<?> objectClass )
+	{
+		for( WeakReference<AssessmentPlan> planReference : entries.planReferences )
+		{
+			AssessmentPlan plan = planReference.get();
+			if( plan != null && plan.type == objectClass )
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * PEARL: the entries are kept in an immutable object so that threads racing to update the cache can never observe a half-done update. A lost update
+	 * merely costs another lookup in the shared {@link ClassValue}.
+	 */
+	private static final class Entries
+	{
+		static final Entries empty = new Entries( newPlanReferences( 0 ) );
+		static final Entries megamorphic = new Entries( newPlanReferences( 0 ) );
+
+		final WeakReference<AssessmentPlan>[] planReferences;
+
+		private Entries( WeakReference<AssessmentPlan>[] planReferences )
+		{
+			this.planReferences = planReferences;
+		}
+
+		/**
+		 * Returns new entries with the given plan added, and with the plans of classes that have been collected removed.
+		 */
+		Entries with( AssessmentPlan plan )
+		{
+			WeakReference<AssessmentPlan>[] newPlanReferences = newPlanReferences( planReferences.length + 1 );
+			int length = 0;
+			for( WeakReference<AssessmentPlan> planReference : planReferences )
+				if( planReference.get() != null )
+					newPlanReferences[length++] = planReference;
+			if( length == capacity )
+				return megamorphic;
+			newPlanReferences[length++] = new WeakReference<>( plan );
+			return new Entries( Arrays.copyOf( newPlanReferences, length ) );
+		}
+
+		private static WeakReference<AssessmentPlan>[] newPlanReferences( int length )
+		{
+			@SuppressWarnings( "unchecked" ) WeakReference<AssessmentPlan>[] planReferences = (WeakReference<AssessmentPlan>[])new WeakReference<?>[length];
+			return planReferences;
+		}
+	}
+}
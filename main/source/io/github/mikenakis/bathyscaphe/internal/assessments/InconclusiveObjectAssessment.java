@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal.assessments;
+
+import io.github.mikenakis.bathyscaphe.AssessmentBudget;
+
+/**
+ * Signifies that the assessment of an object was abandoned because it exceeded a limit of its {@link AssessmentBudget}, so it is not known whether the
+ * object is immutable.
+ *
+ * @author michael.gr
+ */
+public final class InconclusiveObjectAssessment extends ObjectAssessment
+{
+	public final Object object;
+	public final AssessmentBudget.Limit exceededLimit;
+	public final long visitedObjectCount;
+	public final int reachedDepth;
+	public final long elapsedNanoseconds;
+
+	public InconclusiveObjectAssessment( Object object, AssessmentBudget.Limit exceededLimit, long visitedObjectCount, int reachedDepth, long elapsedNanoseconds )
+	{
+		assert object != null;
+		this.object = object;
+		this.exceededLimit = exceededLimit;
+		this.visitedObjectCount = visitedObjectCount;
+		this.reachedDepth = reachedDepth;
+		this.elapsedNanoseconds = elapsedNanoseconds;
+	}
+
+	@Override public boolean isThreadSafe() { return false; }
+}
@@ -36,6 +36,23 @@ public final class MutableComponentMutableObjectAssessment<T, E> extends Mutable
 		this.elementAssessment = elementAssessment;
 	}
 
+	/**
+	 * Describes the mutable component, as described by the decomposer, or by its index if the decomposer does not describe it.
+	 */
+	public String componentDescription()
+	{
+		String description = decomposerComponentDescription();
+		return description == null ? "index " + elementIndex : description;
+	}
+
+	/**
+	 * Describes the mutable component as described by the decomposer, or returns {@code null} if the decomposer does not describe it.
+	 */
+	public String decomposerComponentDescription()
+	{
+		return typeAssessment.decomposer.describeComponent( compositeObject, elementIndex );
+	}
+
 	@Override public Object object() { return compositeObject; }
 	@Override public NonImmutableTypeAssessment typeAssessment() { return typeAssessment; }
 	@Override public List<Assessment> children() { return List.of( typeAssessment, elementAssessment ); }
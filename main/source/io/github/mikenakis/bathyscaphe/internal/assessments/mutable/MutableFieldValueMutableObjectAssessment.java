@@ -9,7 +9,6 @@ package io.github.mikenakis.bathyscaphe.internal.assessments.mutable;
 
 import io.github.mikenakis.bathyscaphe.internal.assessments.Assessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.MutableObjectAssessment;
-import io.github.mikenakis.bathyscaphe.internal.mykit.MyKit;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.NonImmutableTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ProvisoryTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.field.assessments.nonimmutable.provisory.ProvisoryFieldTypeProvisoryFieldAssessment;
@@ -34,7 +33,7 @@ public final class MutableFieldValueMutableObjectAssessment extends MutableObjec
 		assert declaringTypeAssessment.type.isAssignableFrom( object.getClass() );
 		assert declaringTypeAssessment.type == provisoryFieldAssessment.field.getDeclaringClass();
 		assert List.of( declaringTypeAssessment.type.getDeclaredFields() ).contains( provisoryFieldAssessment.field );
-		assert fieldValueAssessment.object().equals( MyKit.getFieldValue( object, provisoryFieldAssessment.field ) ); //note: this is a bit problematic because if the `equals()` method of that object throws, it might appear as a failure of Bathyscaphe.
+		assert fieldValueAssessment.object().equals( provisoryFieldAssessment.accessor.get( object ) ); //note: this is a bit problematic because if the `equals()` method of that object throws, it might appear as a failure of Bathyscaphe.
 		this.object = object;
 		this.declaringTypeAssessment = declaringTypeAssessment;
 		this.provisoryFieldAssessment = provisoryFieldAssessment;
@@ -10,6 +10,7 @@ package io.github.mikenakis.bathyscaphe.internal.assessments.mutable;
 import io.github.mikenakis.bathyscaphe.internal.assessments.Assessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.MutableObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.NonImmutableTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.MultiReasonProvisoryTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ProvisorySuperclassProvisoryTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ProvisoryTypeAssessment;
 
@@ -28,8 +29,8 @@ public final class MutableSuperObjectMutableObjectAssessment extends MutableObje
 
 	public MutableSuperObjectMutableObjectAssessment( Object object, ProvisoryTypeAssessment typeAssessment, MutableObjectAssessment mutableSuperObjectAssessment )
 	{
-		assert typeAssessment.type == object.getClass();
-		assert typeAssessment instanceof ProvisorySuperclassProvisoryTypeAssessment;
+		assert typeAssessment.type.isAssignableFrom( object.getClass() );
+		assert typeAssessment instanceof ProvisorySuperclassProvisoryTypeAssessment || typeAssessment instanceof MultiReasonProvisoryTypeAssessment;
 		assert mutableSuperObjectAssessment.object() == object;
 		this.object = object;
 		this.typeAssessment = typeAssessment;
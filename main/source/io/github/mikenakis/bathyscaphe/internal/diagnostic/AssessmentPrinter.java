@@ -12,6 +12,7 @@ import io.github.mikenakis.bathyscaphe.annotations.Invariable;
 import io.github.mikenakis.bathyscaphe.annotations.InvariableArray;
 import io.github.mikenakis.bathyscaphe.internal.assessments.Assessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.ImmutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.InconclusiveObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.MutableObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.ObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableArrayElementMutableObjectAssessment;
@@ -25,6 +26,7 @@ import io.github.mikenakis.bathyscaphe.internal.type.assessments.ImmutableTypeAs
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.TypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.ArrayMutableTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.ArrayOfMutableElementTypeMutableTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.InaccessibleFieldMutableTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.MultiReasonMutableTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.MutableFieldMutableTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.MutableSuperclassMutableTypeAssessment;
@@ -51,6 +53,10 @@ import java.util.List;
 
 /**
  * Generates human-readable text for assessments. DO NOT USE; FOR INTERNAL USE ONLY.
+ * <p>
+ * The text of each assessment is generated in two steps: first the assessment is described as a sequence of fragments, which are literal strings, numbers,
+ * and names of types, classes, fields and objects, none of which references the assessment, nor any object, class, or field; then the fragments are
+ * rendered into text. This allows a {@link DetachedExplanation} to keep only the fragments, and to render them only if asked to.
  *
  * @author michael.gr
  */
@@ -58,6 +64,8 @@ public final class AssessmentPrinter
 {
 	public static List<String> getText( ObjectMustBeImmutableException objectMustBeImmutableException )
 	{
+		if( objectMustBeImmutableException.detachedExplanation != null )
+			return objectMustBeImmutableException.detachedExplanation.text();
 		return getText( objectMustBeImmutableException.mutableObjectAssessment );
 	}
 
@@ -68,7 +76,7 @@ public final class AssessmentPrinter
 		return lines;
 	}
 
-	private static String getAssessmentText( Assessment unknownAssessment )
+	static Object[] getAssessmentFragments( Assessment unknownAssessment )
 	{
 		AssessmentPrinter assessmentPrinter = new AssessmentPrinter();
 		//IntellijIdea blooper: good code red: Currently, (August 2022) IntellijIdea does not know anything about JDK 19, and it is not smart enough to figure
@@ -82,19 +90,32 @@ public final class AssessmentPrinter
 			//DoNotCover
 			default -> throw new AssertionError( unknownAssessment );
 		}
-		assessmentPrinter.append( ". (" + unknownAssessment.getClass().getSimpleName() + ")" );
-		return assessmentPrinter.stringBuilder.toString();
+		assessmentPrinter.append( ". (", unknownAssessment.getClass().getSimpleName(), ")" );
+		return assessmentPrinter.fragments.toArray();
 	}
 
-	private final StringBuilder stringBuilder = new StringBuilder();
+	static String render( Object[] fragments )
+	{
+		StringBuilder stringBuilder = new StringBuilder();
+		for( Object fragment : fragments )
+			stringBuilder.append( fragment );
+		return stringBuilder.toString();
+	}
+
+	private static String getAssessmentText( Assessment assessment )
+	{
+		return render( getAssessmentFragments( assessment ) );
+	}
+
+	private final List<Object> fragments = new ArrayList<>();
 
 	private AssessmentPrinter()
 	{
 	}
 
-	private void append( String text )
+	private void append( Object... fragments )
 	{
-		stringBuilder.append( text );
+		this.fragments.addAll( List.of( fragments ) );
 	}
 
 	private void getFieldAssessmentText( FieldAssessment fieldAssessment )
@@ -113,17 +134,17 @@ public final class AssessmentPrinter
 
 	private void getMutableFieldAssessmentText( MutableFieldAssessment mutableFieldAssessment )
 	{
-		append( fieldName( mutableFieldAssessment.field ) + " is mutable" );
+		append( fieldName( mutableFieldAssessment.field ), " is mutable" );
 		//IntellijIdea blooper: good code red: Currently, (August 2022) IntellijIdea does not know anything about JDK 19, and it is not smart enough to
 		//figure out that feature-wise it must be a superset of the last JDK that it knows, which is JDK 17.
 		//As a result, it marks the following code with "Patterns in switch are not supported at language level '19'", which is just plain wrong.
 		switch( mutableFieldAssessment )
 		{
 			case ArrayMutableFieldAssessment ignored ->
-				append( " because is an array, and it has not been annotated with @" + InvariableArray.class.getSimpleName() );
-			case MutableFieldTypeMutableFieldAssessment assessment -> append( " because it is of mutable " + typeName( assessment.fieldTypeAssessment.type ) );
+				append( " because is an array, and it has not been annotated with @", InvariableArray.class.getSimpleName() );
+			case MutableFieldTypeMutableFieldAssessment assessment -> append( " because it is of mutable ", typeName( assessment.fieldTypeAssessment.type ) );
 			case VariableMutableFieldAssessment ignored ->
-				append( " because it is not final, and it has not been annotated with @" + Invariable.class.getSimpleName() );
+				append( " because it is not final, and it has not been annotated with @", Invariable.class.getSimpleName() );
 			//DoNotCover
 			default -> throw new AssertionError( mutableFieldAssessment );
 		}
@@ -131,7 +152,7 @@ public final class AssessmentPrinter
 
 	private void getProvisoryFieldAssessmentText( ProvisoryFieldTypeProvisoryFieldAssessment provisoryFieldAssessment )
 	{
-		append( fieldName( provisoryFieldAssessment.field ) + " is provisory because it is of provisory " + typeName( provisoryFieldAssessment.field.getType() ) );
+		append( fieldName( provisoryFieldAssessment.field ), " is provisory because it is of provisory ", typeName( provisoryFieldAssessment.field.getType() ) );
 	}
 
 	private void getTypeAssessmentText( TypeAssessment typeAssessment )
@@ -151,7 +172,7 @@ public final class AssessmentPrinter
 
 	private void getMutableTypeAssessmentText( MutableTypeAssessment mutableTypeAssessment )
 	{
-		append( className( mutableTypeAssessment.type ) + " is mutable" );
+		append( className( mutableTypeAssessment.type ), " is mutable" );
 		//IntellijIdea blooper: good code red: Currently, (August 2022) IntellijIdea does not know anything about JDK 19, and it is not smart enough to
 		//figure out that feature-wise it must be a superset of the last JDK that it knows, which is JDK 17.
 		//As a result, it marks the following code with "Patterns in switch are not supported at language level '19'", which is just plain wrong.
@@ -159,10 +180,11 @@ public final class AssessmentPrinter
 		{
 			case ArrayMutableTypeAssessment ignore -> append( " because it is an array class" );
 			case MultiReasonMutableTypeAssessment ignore -> append( " due to multiple reasons" );
-			case MutableFieldMutableTypeAssessment assessment -> append( " because " + fieldName( assessment.fieldAssessment.field ) + " is mutable" );
+			case MutableFieldMutableTypeAssessment assessment -> append( " because ", fieldName( assessment.fieldAssessment.field ), " is mutable" );
 			case MutableSuperclassMutableTypeAssessment assessment ->
-				append( " because it extends mutable " + className( assessment.superclassAssessment.type ) );
+				append( " because it extends mutable ", className( assessment.superclassAssessment.type ) );
 			case ArrayOfMutableElementTypeMutableTypeAssessment ignore -> append( " because it is an array of mutable element type" );
+			case InaccessibleFieldMutableTypeAssessment assessment -> append( " because ", fieldName( assessment.field ), " is inaccessible" );
 			//DoNotCover
 			default -> throw new AssertionError( mutableTypeAssessment );
 		}
@@ -170,20 +192,20 @@ public final class AssessmentPrinter
 
 	private void getProvisoryTypeAssessmentText( ProvisoryTypeAssessment provisoryTypeAssessment )
 	{
-		append( typeName( provisoryTypeAssessment.type ) + " is provisory" );
+		append( typeName( provisoryTypeAssessment.type ), " is provisory" );
 		//IntellijIdea blooper: good code red: Currently, (August 2022) IntellijIdea does not know anything about JDK 19, and it is not smart enough to
 		//figure out that feature-wise it must be a superset of the last JDK that it knows, which is JDK 17.
 		//As a result, it marks the following code with "Patterns in switch are not supported at language level '19'", which is just plain wrong.
 		switch( provisoryTypeAssessment )
 		{
 			case CompositeProvisoryTypeAssessment<?,?> assessment ->
-				append( " because it " + modeName( assessment.mode ) + " a composite of " + typeName( assessment.componentTypeAssessment.type ) );
-			case ExtensibleProvisoryTypeAssessment assessment -> append( " because it " + modeName( assessment.mode ) + " an extensible class" );
+				append( " because it ", modeName( assessment.mode ), " a composite of ", typeName( assessment.componentTypeAssessment.type ) );
+			case ExtensibleProvisoryTypeAssessment assessment -> append( " because it ", modeName( assessment.mode ), " an extensible class" );
 			case InterfaceProvisoryTypeAssessment ignore -> append( " because it is an interface" );
 			case MultiReasonProvisoryTypeAssessment ignore -> append( " due to multiple reasons" );
 			case ProvisorySuperclassProvisoryTypeAssessment assessment ->
-				append( " because it extends provisory " + className( assessment.superclassAssessment.type ) );
-			case ProvisoryFieldProvisoryTypeAssessment assessment -> append( " because " + fieldName( assessment.fieldAssessment.field ) + " is provisory" );
+				append( " because it extends provisory ", className( assessment.superclassAssessment.type ) );
+			case ProvisoryFieldProvisoryTypeAssessment assessment -> append( " because ", fieldName( assessment.fieldAssessment.field ), " is provisory" );
 			case ArrayOfProvisoryElementTypeProvisoryTypeAssessment ignore -> append( " because it is an array of provisory element type" );
 			case SelfAssessableProvisoryTypeAssessment ignore -> append( " because instances of this type are self-assessable" );
 			//DoNotCover
@@ -200,6 +222,8 @@ public final class AssessmentPrinter
 		{
 			case MutableObjectAssessment assessment -> getMutableObjectAssessmentText( assessment );
 			case ImmutableObjectAssessment ignore -> append( "immutable" );
+			case InconclusiveObjectAssessment assessment -> append( objectFragment( assessment.object ), " could not be assessed because its assessment exceeded the ", //
+				assessment.exceededLimit, " limit after visiting ", assessment.visitedObjectCount, " objects" );
 			//DoNotCover
 			default -> throw new AssertionError( objectAssessment );
 		}
@@ -207,7 +231,7 @@ public final class AssessmentPrinter
 
 	private void getMutableObjectAssessmentText( MutableObjectAssessment mutableObjectAssessment )
 	{
-		append( objectName( mutableObjectAssessment.object() ) + " is mutable" );
+		append( objectFragment( mutableObjectAssessment.object() ), " is mutable" );
 		//IntellijIdea blooper: good code red: Currently, (August 2022) IntellijIdea does not know anything about JDK 19, and it is not smart enough to
 		//figure out that feature-wise it must be a superset of the last JDK that it knows, which is JDK 17.
 		//As a result, it marks the following code with "Patterns in switch are not supported at language level '19'", which is just plain wrong.
@@ -215,11 +239,11 @@ public final class AssessmentPrinter
 		{
 			case MutableSuperObjectMutableObjectAssessment ignore -> append( " because its superclass is mutable" );
 			case MutableArrayElementMutableObjectAssessment assessment ->
-				append( " because index " + assessment.elementIndex + " contains mutable " + objectName( assessment.elementAssessment.object() ) );
+				append( " because index ", assessment.elementIndex, " contains mutable ", objectFragment( assessment.elementAssessment.object() ) );
 			case MutableComponentMutableObjectAssessment<?,?> assessment ->
-				append( " because index " + assessment.elementIndex + " contains mutable " + objectName( assessment.elementAssessment.object() ) );
+				append( " because ", assessment.componentDescription(), " contains mutable ", objectFragment( assessment.elementAssessment.object() ) );
 			case MutableFieldValueMutableObjectAssessment assessment ->
-				append( " because " + fieldName( assessment.provisoryFieldAssessment.field ) + " contains mutable " + objectName( assessment.fieldValueAssessment.object() ) );
+				append( " because ", fieldName( assessment.provisoryFieldAssessment.field ), " contains mutable ", objectFragment( assessment.fieldValueAssessment.object() ) );
 			case NonEmptyArrayMutableObjectAssessment ignore -> append( " because it is a non-empty array" );
 			case MutableClassMutableObjectAssessment ignore -> append( " because it is of a mutable class" );
 			case SelfAssessedMutableObjectAssessment ignore -> append( " because it assessed itself as mutable" );
@@ -238,27 +262,32 @@ public final class AssessmentPrinter
 			};
 	}
 
-	private static String typeName( Class<?> jvmClass )
+	private static Name typeName( Class<?> jvmClass )
 	{
-		return "type '" + getClassName( jvmClass ) + "'";
+		return new Name( "type", getClassName( jvmClass ) );
 	}
 
-	private static String className( Class<?> jvmClass )
+	private static Name className( Class<?> jvmClass )
 	{
-		return "class '" + getClassName( jvmClass ) + "'";
+		return new Name( "class", getClassName( jvmClass ) );
 	}
 
-	private static String fieldName( @SuppressWarnings( "TypeMayBeWeakened" ) Field field )
+	private static Name fieldName( @SuppressWarnings( "TypeMayBeWeakened" ) Field field )
 	{
-		return "field '" + field.getName() + "'";
+		return new Name( "field", field.getName() );
 	}
 
-	public static String objectName( Object object )
+	private static Object objectFragment( Object object )
 	{
 		if( object == null )
 			return "null";
 		assert !(object instanceof Class<?>);
-		return "instance of '" + getClassName( object.getClass() ) + "'";
+		return new Name( "instance of", getClassName( object.getClass() ) );
+	}
+
+	public static String objectName( Object object )
+	{
+		return objectFragment( object ).toString();
 	}
 
 	private static String getClassName( Class<?> jvmClass )
@@ -268,4 +297,12 @@ public final class AssessmentPrinter
 			return jvmClass.getName();
 		return text;
 	}
+
+	private record Name( String kind, String name )
+	{
+		@Override public String toString()
+		{
+			return kind + " '" + name + "'";
+		}
+	}
 }
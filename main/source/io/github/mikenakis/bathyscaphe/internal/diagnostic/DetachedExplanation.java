@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal.diagnostic;
+
+import io.github.mikenakis.bathyscaphe.internal.assessments.Assessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.MutableObjectAssessment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The explanation of a {@link MutableObjectAssessment}, which does not reference the assessment, nor any of the objects, classes, or fields that the
+ * assessment references. Keeps only the names and numbers that each line of the explanation needs, and renders the text only when asked to. DO NOT USE;
+ * FOR INTERNAL USE ONLY.
+ *
+ * @author michael.gr
+ */
+public final class DetachedExplanation
+{
+	private record Node( Object[] fragments, List<Node> children )
+	{
+	}
+
+	private static Node detach( Assessment assessment )
+	{
+		List<Node> children = new ArrayList<>();
+		for( Assessment child : assessment.children() )
+			children.add( detach( child ) );
+		return new Node( AssessmentPrinter.getAssessmentFragments( assessment ), children );
+	}
+
+	private final Node root;
+
+	public DetachedExplanation( MutableObjectAssessment mutableObjectAssessment )
+	{
+		root = detach( mutableObjectAssessment );
+	}
+
+	public List<String> text()
+	{
+		List<String> lines = new ArrayList<>();
+		TextTree.tree( root, Node::children, node -> AssessmentPrinter.render( node.fragments ), s -> lines.add( s ) );
+		return lines;
+	}
+
+	@Override public String toString()
+	{
+		return String.join( "\n", text() );
+	}
+}
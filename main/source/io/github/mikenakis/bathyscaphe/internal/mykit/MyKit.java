@@ -10,7 +10,6 @@ package io.github.mikenakis.bathyscaphe.internal.mykit;
 import io.github.mikenakis.bathyscaphe.internal.mykit.functional.Function0;
 import io.github.mikenakis.debug.Debug;
 
-import java.lang.reflect.Field;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -71,25 +70,6 @@ public final class MyKit
 		return uncheckedClassCast( object.getClass() );
 	}
 
-	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
-	// Reflection stuff
-
-	public static Object getFieldValue( Object object, Field field )
-	{
-		if( !field.canAccess( object ) ) //TODO: assess whether performing this check saves any time (as opposed to always invoking setAccessible without the check.)
-			field.setAccessible( true );
-		Object fieldValue;
-		try
-		{
-			fieldValue = field.get( object );
-		}
-		catch( IllegalAccessException e )
-		{
-			throw new RuntimeException( e );
-		}
-		return fieldValue;
-	}
-
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 	// StringBuilder stuff
 
@@ -136,6 +116,7 @@ public final class MyKit
 		//As a result, it marks the following code with "Patterns in switch are not supported at language level '19'", which is just plain wrong.
 		switch( object )
 		{
+			case null -> stringBuilder.append( "null" );
 			case String s -> appendEscapedForJava( stringBuilder, s, '"' );
 			case Character c -> appendEscapedForJava( stringBuilder, String.valueOf( c ), '\'' );
 			default -> stringBuilder.append( object );
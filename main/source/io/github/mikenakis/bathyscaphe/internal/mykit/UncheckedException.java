@@ -35,6 +35,17 @@ public class UncheckedException extends RuntimeException
 		super( cause );
 	}
 
+	/**
+	 * Constructor.
+	 *
+	 * @param stackless if {@code true}, no stack trace is captured, and no suppressed exceptions are recorded, which makes the exception much cheaper to
+	 *                  create, at the expense of making it harder to tell where it came from.
+	 */
+	public UncheckedException( boolean stackless )
+	{
+		super( null, null, !stackless, !stackless );
+	}
+
 	@Override public final String getMessage()
 	{
 		//NOTE: we are not adding the message of the base class because we have not set a value to it, so super.getMessage() would return the message of the
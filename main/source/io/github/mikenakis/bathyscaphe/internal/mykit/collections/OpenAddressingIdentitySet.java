@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal.mykit.collections;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A set of objects compared by identity, implemented as an open-addressing hash table with linear probing.
+ * <p>
+ * Never invokes {@link Object#hashCode()} or {@link Object#equals(Object)} of the objects; uses {@link System#identityHashCode(Object)} and {@code ==}
+ * instead. Does not allocate anything per element, so it costs a few bytes per element, which makes it suitable for sets of tens of millions of objects.
+ * Meant to be cleared and reused.
+ *
+ * @author michael.gr
+ */
+public final class OpenAddressingIdentitySet
+{
+	private static final int initialCapacity = 64;
+	private static final int maximumRetainedCapacity = 1 << 16;
+
+	private Object[] table = new Object[initialCapacity];
+	private int shift = Integer.numberOfLeadingZeros( initialCapacity ) + 1;
+	private int size;
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean contains( Object object )
+	{
+		assert object != null;
+		Object[] table = this.table;
+		int mask = table.length - 1;
+		for( int index = indexOf( object ); ; index = (index + 1) & mask )
+		{
+			Object existing = table[index];
+			if( existing == object )
+				return true;
+			if( existing == null )
+				return false;
+		}
+	}
+
+	/**
+	 * Adds an object to the set.
+	 *
+	 * @return {@code true} if the object was added; {@code false} if it was already in the set.
+	 */
+	public boolean add( Object object )
+	{
+		assert object != null;
+		Object[] table = this.table;
+		int mask = table.length - 1;
+		for( int index = indexOf( object ); ; index = (index + 1) & mask )
+		{
+			Object existing = table[index];
+			if( existing == object )
+				return false;
+			if( existing == null )
+			{
+				table[index] = object;
+				size++;
+				//Keep the load factor at or below 2/3, beyond which linear probing starts to degrade.
+				if( size * 3L > table.length * 2L )
+					grow();
+				return true;
+			}
+		}
+	}
+
+	public void forEach( Consumer<Object> consumer )
+	{
+		for( Object object : table )
+			if( object != null )
+				consumer.accept( object );
+	}
+
+	/**
+	 * Removes all objects from the set. If the set had grown very large, or if it is mostly empty, its storage is replaced with a small one.
+	 * <p>
+	 * PEARL: clearing takes time proportional to the capacity, not to the size, so after a huge assessment has grown the table, clearing it after each
+	 * small assessment would cost far more than the assessment itself. So, when the table is mostly empty, it is cheaper to start over with a small table,
+	 * and let it grow again if needed.
+	 */
+	public void clear()
+	{
+		if( table.length > maximumRetainedCapacity || table.length > initialCapacity && size * 8L < table.length )
+		{
+			table = new Object[initialCapacity];
+			shift = Integer.numberOfLeadingZeros( initialCapacity ) + 1;
+		}
+		else if( size > 0 )
+			Arrays.fill( table, null );
+		size = 0;
+	}
+
+	private int indexOf( Object object )
+	{
+		//PEARL: identity hash codes tend to be clustered, so they are scrambled with the golden ratio (Fibonacci hashing) and the top bits are used.
+		return (System.identityHashCode( object ) * 0x9E3779B9) >>> shift;
+	}
+
+	private void grow()
+	{
+		Object[] oldTable = table;
+		table = new Object[oldTable.length * 2];
+		shift--;
+		int mask = table.length - 1;
+		for( Object object : oldTable )
+		{
+			if( object == null )
+				continue;
+			int index = indexOf( object );
+			while( table[index] != null )
+				index = (index + 1) & mask;
+			table[index] = object;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal.mykit.collections;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe set of objects compared by identity.
+ * <p>
+ * Consists of a number of {@link OpenAddressingIdentitySet}s, each guarded by its own lock, so that threads adding different objects rarely contend.
+ *
+ * @author michael.gr
+ */
+public final class StripedIdentitySet
+{
+	private static final int stripeCount = 64;
+
+	private final OpenAddressingIdentitySet[] stripes = new OpenAddressingIdentitySet[stripeCount];
+	private final ReentrantLock[] locks = new ReentrantLock[stripeCount];
+
+	public StripedIdentitySet()
+	{
+		for( int i = 0; i < stripeCount; i++ )
+		{
+			stripes[i] = new OpenAddressingIdentitySet();
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	public boolean contains( Object object )
+	{
+		int stripeIndex = stripeIndexOf( object );
+		ReentrantLock lock = locks[stripeIndex];
+		lock.lock();
+		try
+		{
+			return stripes[stripeIndex].contains( object );
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds an object to the set.
+	 *
+	 * @return {@code true} if the object was added; {@code false} if it was already in the set.
+	 */
+	public boolean add( Object object )
+	{
+		int stripeIndex = stripeIndexOf( object );
+		ReentrantLock lock = locks[stripeIndex];
+		lock.lock();
+		try
+		{
+			return stripes[stripeIndex].add( object );
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private static int stripeIndexOf( Object object )
+	{
+		//PEARL: the stripe is chosen by the low bits of the identity hash code, because each stripe hashes by the high bits.
+		return System.identityHashCode( object ) & (stripeCount - 1);
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal.mykit.collections;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe, size-bounded set of objects compared by identity, which does not keep its objects alive, and which keeps hit and miss counts.
+ * <p>
+ * Consists of a number of stripes, each guarded by its own lock. Each stripe is an open-addressing hash table with linear probing, holding weak
+ * references. When a stripe fills up, references to objects that have been garbage-collected are purged; if the stripe is still full, it is emptied.
+ *
+ * @author michael.gr
+ */
+public final class WeakIdentityCache
+{
+	private static final int stripeCount = 64;
+
+	private final Stripe[] stripes = new Stripe[stripeCount];
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+
+	public WeakIdentityCache( int maximumSize )
+	{
+		assert maximumSize > 0;
+		int maximumStripeSize = Math.max( 1, maximumSize / stripeCount );
+		for( int i = 0; i < stripeCount; i++ )
+			stripes[i] = new Stripe( maximumStripeSize );
+	}
+
+	public boolean contains( Object object )
+	{
+		boolean result = stripeOf( object ).contains( object );
+		(result ? hitCount : missCount).increment();
+		return result;
+	}
+
+	public void add( Object object )
+	{
+		stripeOf( object ).add( object );
+	}
+
+	public long hitCount()
+	{
+		return hitCount.sum();
+	}
+
+	public long missCount()
+	{
+		return missCount.sum();
+	}
+
+	/**
+	 * Returns the number of objects in the cache, including any objects which have been garbage-collected but not yet purged.
+	 */
+	public int size()
+	{
+		int result = 0;
+		for( Stripe stripe : stripes )
+			result += stripe.size();
+		return result;
+	}
+
+	private Stripe stripeOf( Object object )
+	{
+		//PEARL: the stripe is chosen by the low bits of the identity hash code, because each stripe hashes by the high bits.
+		return stripes[System.identityHashCode( object ) & (stripeCount - 1)];
+	}
+
+	private static final class Stripe
+	{
+		private final ReentrantLock lock = new ReentrantLock();
+		private final int maximumSize;
+		private final int shift;
+		private WeakReference<?>[] table;
+		private int size;
+
+		Stripe( int maximumSize )
+		{
+			this.maximumSize = maximumSize;
+			//Keep the load factor at or below 1/2.
+			int capacity = Integer.highestOneBit( maximumSize ) << 2;
+			shift = Integer.numberOfLeadingZeros( capacity ) + 1;
+			table = new WeakReference<?>[capacity];
+		}
+
+		int size()
+		{
+			lock.lock();
+			try
+			{
+				return size;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		boolean contains( Object object )
+		{
+			lock.lock();
+			try
+			{
+				int mask = table.length - 1;
+				for( int index = indexOf( object ); ; index = (index + 1) & mask )
+				{
+					WeakReference<?> reference = table[index];
+					if( reference == null )
+						return false;
+					if( reference.get() == object )
+						return true;
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		void add( Object object )
+		{
+			lock.lock();
+			try
+			{
+				if( size >= maximumSize )
+				{
+					purge();
+					if( size >= maximumSize )
+						clear();
+				}
+				int mask = table.length - 1;
+				for( int index = indexOf( object ); ; index = (index + 1) & mask )
+				{
+					WeakReference<?> reference = table[index];
+					if( reference == null )
+					{
+						table[index] = new WeakReference<>( object );
+						size++;
+						return;
+					}
+					if( reference.get() == object )
+						return;
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Removes the references to objects that have been garbage-collected.
+		 * <p>
+		 * PEARL: with linear probing, an entry cannot just be removed without breaking the probe sequences that pass through it, so the surviving entries
+		 * are re-inserted into a new table. This also means that the hash code of each entry needs not be stored, because it can be recomputed from the
+		 * surviving object.
+		 */
+		private void purge()
+		{
+			WeakReference<?>[] oldTable = table;
+			table = new WeakReference<?>[oldTable.length];
+			size = 0;
+			int mask = table.length - 1;
+			for( WeakReference<?> reference : oldTable )
+			{
+				if( reference == null )
+					continue;
+				Object object = reference.get();
+				if( object == null )
+					continue;
+				int index = indexOf( object );
+				while( table[index] != null )
+					index = (index + 1) & mask;
+				table[index] = reference;
+				size++;
+			}
+		}
+
+		private void clear()
+		{
+			table = new WeakReference<?>[table.length];
+			size = 0;
+		}
+
+		private int indexOf( Object object )
+		{
+			return (System.identityHashCode( object ) * 0x9E3779B9) >>> shift;
+		}
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal.sampling;
+
+/**
+ * A {@link Sampler} which samples the first K calls, and then every Nth call, starting with call K + N.
+ * <p>
+ * DO NOT USE; FOR INTERNAL USE ONLY.
+ *
+ * @author michael.gr
+ */
+public final class FirstThenOneInSampler extends Sampler
+{
+	private final int period;
+	private int remainingFirstCount;
+	private int count;
+
+	public FirstThenOneInSampler( int firstCount, int period )
+	{
+		assert firstCount >= 0;
+		assert period > 0;
+		this.period = period;
+		remainingFirstCount = firstCount;
+	}
+
+	@Override public boolean sample()
+	{
+		if( remainingFirstCount > 0 )
+		{
+			remainingFirstCount--;
+			return true;
+		}
+		int current = count + 1 == period ? 0 : count + 1;
+		count = current;
+		return current == 0;
+	}
+}
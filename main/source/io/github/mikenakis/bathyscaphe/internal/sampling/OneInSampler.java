@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal.sampling;
+
+/**
+ * A {@link Sampler} which samples the first call, and every Nth call thereafter.
+ * <p>
+ * DO NOT USE; FOR INTERNAL USE ONLY.
+ *
+ * @author michael.gr
+ */
+public final class OneInSampler extends Sampler
+{
+	private final int period;
+	private int count;
+
+	public OneInSampler( int period )
+	{
+		assert period > 0;
+		this.period = period;
+	}
+
+	@Override public boolean sample()
+	{
+		int current = count;
+		count = current + 1 == period ? 0 : current + 1;
+		return current == 0;
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal.sampling;
+
+/**
+ * A {@link Sampler} which samples at most a certain number of calls per second.
+ * <p>
+ * DO NOT USE; FOR INTERNAL USE ONLY.
+ *
+ * @author michael.gr
+ */
+public final class RateLimitingSampler extends Sampler
+{
+	private static final long nanosecondsPerSecond = 1_000_000_000L;
+
+	private final int maximumCountPerSecond;
+	private long currentSecond = Long.MIN_VALUE;
+	private int count;
+
+	public RateLimitingSampler( int maximumCountPerSecond )
+	{
+		assert maximumCountPerSecond > 0;
+		this.maximumCountPerSecond = maximumCountPerSecond;
+	}
+
+	@Override public boolean sample()
+	{
+		long second = System.nanoTime() / nanosecondsPerSecond;
+		if( second != currentSecond )
+		{
+			currentSecond = second;
+			count = 0;
+		}
+		if( count >= maximumCountPerSecond )
+			return false;
+		count++;
+		return true;
+	}
+}
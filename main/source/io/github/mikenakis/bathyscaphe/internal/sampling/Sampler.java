@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal.sampling;
+
+/**
+ * Decides which of a sequence of calls should be sampled.
+ * <p>
+ * DO NOT USE; FOR INTERNAL USE ONLY.
+ * <p>
+ * Implementations are not synchronized, because the state that they keep is only used for approximating a sampling rate; under contention some calls
+ * may be miscounted, which merely perturbs the sampling rate a little. They must not allocate memory.
+ *
+ * @author michael.gr
+ */
+public abstract class Sampler
+{
+	protected Sampler()
+	{
+	}
+
+	/**
+	 * Decides whether the current call should be sampled.
+	 *
+	 * @return {@code true} if the current call should be sampled; {@code false} if it should be skipped.
+	 */
+	public abstract boolean sample();
+}
@@ -7,16 +7,20 @@
 
 package io.github.mikenakis.bathyscaphe.internal.type;
 
+import io.github.mikenakis.bathyscaphe.Decomposer;
 import io.github.mikenakis.bathyscaphe.internal.mykit.MyKit;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.ImmutableTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.TypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.InaccessibleFieldMutableTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.ThreadSafeMutableTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.CompositeProvisoryTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ExtensibleProvisoryTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ProvisoryTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.field.FieldAccessor;
 
 import java.io.File;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -106,6 +110,74 @@ final class DefaultPreassessments
 		addDefaultThreadSafePreassessment( assessor, SynchronousQueue.class );
 	}
 
+	/**
+	 * Returns the default preassessment of a JDK class which is not added up-front, or {@code null} if there is no such preassessment for the class.
+	 * <p>
+	 * These classes are private to the JDK, so they can only be obtained by instantiating them; instead, they are recognized by name when first encountered.
+	 */
+	static TypeAssessment lazyPreassessment( TypeAssessor assessor, Class<?> jvmClass )
+	{
+		if( jvmClass.getClassLoader() != null )
+			return null;
+		return switch( jvmClass.getName() )
+			{
+				case "java.util.ImmutableCollections$Set12", "java.util.ImmutableCollections$SetN", //
+					"java.util.Collections$EmptySet", "java.util.Collections$SingletonSet" -> //
+					lazyCompositePreassessment( assessor, jvmClass, IterableDecomposer.instance() );
+				case "java.util.ImmutableCollections$SubList", "java.util.Collections$EmptyList", "java.util.Collections$SingletonList" -> //
+					lazyCompositePreassessment( assessor, jvmClass, JdkListDecomposer.instance() );
+				case "java.util.Collections$EmptyMap", "java.util.Collections$SingletonMap" -> //
+					lazyCompositePreassessment( assessor, jvmClass, JdkMapDecomposer.instance() );
+				//These are subclasses of unmodifiable views, which are always empty.
+				case "java.util.Collections$UnmodifiableNavigableSet$EmptyNavigableSet" -> //
+					lazyCompositePreassessment( assessor, jvmClass, IterableDecomposer.instance() );
+				case "java.util.Collections$UnmodifiableNavigableMap$EmptyNavigableMap" -> //
+					lazyCompositePreassessment( assessor, jvmClass, JdkMapDecomposer.instance() );
+				default -> lazyViewPreassessment( assessor, jvmClass );
+			};
+	}
+
+	/**
+	 * Returns the preassessment of an unmodifiable view, or {@code null} if the class is not an unmodifiable view.
+	 * <p>
+	 * PEARL: the unmodifiable view classes are not final, and the JDK extends them, (for example, the entry set of an unmodifiable map,) so every class
+	 * that extends one of them must be preassessed as a view too; otherwise, it would be assessed by reflection, and its superclass would be found to be
+	 * a composite, which only makes sense for the class of the object being assessed, not for a superclass. Luckily, none of these subclasses adds any
+	 * state of its own, except for the empty ones, which are recognized by name.
+	 */
+	private static TypeAssessment lazyViewPreassessment( TypeAssessor assessor, Class<?> jvmClass )
+	{
+		for( Class<?> type = jvmClass; type != null; type = type.getSuperclass() )
+		{
+			String backingFieldName = switch( type.getName() )
+				{
+					case "java.util.Collections$UnmodifiableCollection" -> "c";
+					case "java.util.Collections$UnmodifiableMap" -> "m";
+					default -> null;
+				};
+			if( backingFieldName != null )
+				return lazyViewPreassessment( assessor, jvmClass, backingFieldName );
+		}
+		return null;
+	}
+
+	private static TypeAssessment lazyViewPreassessment( TypeAssessor assessor, Class<?> viewClass, String backingFieldName )
+	{
+		Field backingField = UnmodifiableViewDecomposer.findField( viewClass, backingFieldName );
+		FieldAccessor backingFieldAccessor = FieldAccessor.of( backingField );
+		if( !backingFieldAccessor.isAccessible() )
+			return new InaccessibleFieldMutableTypeAssessment( viewClass, backingField );
+		return lazyCompositePreassessment( assessor, viewClass, new UnmodifiableViewDecomposer( backingFieldAccessor, backingFieldName ) );
+	}
+
+	private static <T, E> TypeAssessment lazyCompositePreassessment( TypeAssessor assessor, Class<?> compositeType, Decomposer<?,?> decomposer )
+	{
+		Class<T> typedCompositeType = MyKit.uncheckedClassCast( compositeType );
+		@SuppressWarnings( "unchecked" ) Decomposer<T,E> typedDecomposer = (Decomposer<T,E>)decomposer;
+		ProvisoryTypeAssessment componentTypeAssessment = (ProvisoryTypeAssessment)assessor.assess( Object.class );
+		return new CompositeProvisoryTypeAssessment<>( TypeAssessment.Mode.PreassessedByDefault, typedCompositeType, true, componentTypeAssessment, typedDecomposer );
+	}
+
 	private static void addDefaultExtensiblePreassessment( TypeAssessor assessor, Class<?> jvmClass )
 	{
 		assert !(new TypeAssessor().assess( jvmClass ) instanceof ExtensibleProvisoryTypeAssessment);
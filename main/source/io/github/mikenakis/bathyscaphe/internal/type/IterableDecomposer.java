@@ -7,6 +7,8 @@
 
 package io.github.mikenakis.bathyscaphe.internal.type;
 
+import io.github.mikenakis.bathyscaphe.Decomposer;
+
 public final class IterableDecomposer implements Decomposer<Iterable<Object>,Object>
 {
 	private static final Decomposer<Iterable<Object>,Object> iterableDecomposer = new IterableDecomposer();
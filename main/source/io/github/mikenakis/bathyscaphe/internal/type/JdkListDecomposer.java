@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal.type;
+
+import io.github.mikenakis.bathyscaphe.Decomposer;
+import io.github.mikenakis.bathyscaphe.IndexedDecomposer;
+
+import java.util.List;
+
+/**
+ * Decomposes a random-access JDK {@link List} into its elements, fetching them by index, so that no iterator is allocated.
+ *
+ * @author michael.gr
+ */
+final class JdkListDecomposer implements IndexedDecomposer<List<Object>,Object>
+{
+	private static final Decomposer<List<Object>,Object> instance = new JdkListDecomposer();
+
+	static <T extends List<E>, E> Decomposer<T,E> instance()
+	{
+		@SuppressWarnings( "unchecked" ) Decomposer<T,E> result = (Decomposer<T,E>)instance;
+		return result;
+	}
+
+	private JdkListDecomposer()
+	{
+	}
+
+	@Override public Iterable<Object> decompose( List<Object> list )
+	{
+		return list;
+	}
+
+	@Override public int size( List<Object> list )
+	{
+		return list.size();
+	}
+
+	@Override public Object component( List<Object> list, int index )
+	{
+		return list.get( index );
+	}
+}
@@ -7,52 +7,150 @@
 
 package io.github.mikenakis.bathyscaphe.internal.type;
 
-import io.github.mikenakis.bathyscaphe.internal.helpers.ConcreteMapEntry;
-import io.github.mikenakis.bathyscaphe.internal.mykit.MyKit;
-import io.github.mikenakis.bathyscaphe.internal.mykit.collections.ConvertingIterable;
+import io.github.mikenakis.bathyscaphe.Decomposer;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 /**
  * PEARL: the JDK {@link Map} interface does not extend {@link Collection} of {@link Map.Entry}, even though conceptually it is a collection of entries.
  * Instead, we have to invoke {@link Map#entrySet()} to obtain the collection of entries.
+ * <p>
+ * The components of a map are its keys and values, alternating, in the order in which the map iterates its entries: the component at index 2N is the key
+ * of the Nth entry, and the component at index 2N+1 is the value of the Nth entry. So, the same component of a given map is always reported as mutable,
+ * and it is described by its key.
  */
-class JdkMapDecomposer<K, V> implements Decomposer<Map<K,V>,ConcreteMapEntry<K,V>>
+final class JdkMapDecomposer<K, V> implements Decomposer<Map<K,V>,Object>
 {
 	private static final JdkMapDecomposer<Object,Object> instance = new JdkMapDecomposer<>();
 
-	static <K, V> Decomposer<Map<K,V>,ConcreteMapEntry<K,V>> instance()
+	static <K, V> Decomposer<Map<K,V>,Object> instance()
 	{
-		@SuppressWarnings( "unchecked" ) Decomposer<Map<K,V>,ConcreteMapEntry<K,V>> result = (JdkMapDecomposer<K,V>)instance;
+		@SuppressWarnings( "unchecked" ) Decomposer<Map<K,V>,Object> result = (JdkMapDecomposer<K,V>)instance;
 		return result;
 	}
 
-	@Override public Iterable<ConcreteMapEntry<K,V>> decompose( Map<K,V> jdkMap )
+	private JdkMapDecomposer()
 	{
-		/**
-		 * PEARL: the decomposer for jdk maps cannot just return {@link Map#entrySet()} because the entry-set is a nested class,
-		 * so it has a 'this$0' field, which points back to the map, which is mutable, thus making the entry-set mutable!
-		 * So, the decomposer has to iterate the entry-set and yield each element in it.
-		 * PEARL: the decomposer cannot just yield each element yielded by the entry-set, because these are instances of {@link java.util.KeyValueHolder}
-		 * which cannot be reflected because it is inaccessible! Therefore, the decomposer has to convert each element to a proximal key-value class which
-		 * is accessible.
-		 */
-		Iterable<Map.Entry<K,V>> entrySet = jdkMap.entrySet();
-		if( MyKit.areAssertionsEnabled() )
-			entrySet = MyKit.streamFromIterable( entrySet ).sorted( JdkMapDecomposer::compareMapEntries ).toList();
-		return new ConvertingIterable<>( entrySet, JdkMapDecomposer::mapEntryConverter );
 	}
 
-	private static int compareMapEntries( Map.Entry<?,?> entry1, Map.Entry<?,?> entry2 )
+	/**
+	 * PEARL: the decomposer for jdk maps cannot just return {@link Map#entrySet()} because the entry-set is a nested class,
+	 * so it has a 'this$0' field, which points back to the map, which is mutable, thus making the entry-set mutable!
+	 * PEARL: the decomposer cannot just yield each element yielded by the entry-set either, because these are instances of
+	 * {@link java.util.KeyValueHolder} which cannot be reflected because it is inaccessible! Converting each of them to an accessible key-value class would
+	 * cost an allocation per entry, so instead, the key and the value of each entry are yielded as components in their own right.
+	 */
+	@Override public Iterable<Object> decompose( Map<K,V> jdkMap )
 	{
-		String a1 = entry1.getKey().toString();
-		String a2 = entry2.getKey().toString();
-		return a1.compareTo( a2 );
+		return () -> new ComponentIterator( jdkMap.entrySet().iterator() );
 	}
 
-	private static <K, V> ConcreteMapEntry<K,V> mapEntryConverter( Map.Entry<K,V> mapEntry )
+	@Override public int size( Map<K,V> jdkMap )
 	{
-		return new ConcreteMapEntry<>( mapEntry.getKey(), mapEntry.getValue() );
+		return jdkMap.size() * 2;
+	}
+
+	@Override public Spliterator<Object> spliterate( Map<K,V> jdkMap )
+	{
+		return new ComponentSpliterator( jdkMap.entrySet().spliterator() );
+	}
+
+	@Override public String describeComponent( Map<K,V> jdkMap, int index )
+	{
+		Iterator<Map.Entry<K,V>> iterator = jdkMap.entrySet().iterator();
+		for( int i = 0; i < index / 2; i++ )
+			iterator.next();
+		return (index % 2 == 0 ? "key " : "value of key ") + iterator.next().getKey();
+	}
+
+	/**
+	 * Yields the key and then the value of each entry of a map.
+	 */
+	private static final class ComponentIterator implements Iterator<Object>
+	{
+		private final Iterator<? extends Map.Entry<?,?>> entryIterator;
+		private Map.Entry<?,?> entry; //the entry whose key has been yielded, if its value has not been yielded yet.
+
+		ComponentIterator( Iterator<? extends Map.Entry<?,?>> entryIterator )
+		{
+			this.entryIterator = entryIterator;
+		}
+
+		@Override public boolean hasNext()
+		{
+			return entry != null || entryIterator.hasNext();
+		}
+
+		@Override public Object next()
+		{
+			if( entry != null )
+			{
+				Object value = entry.getValue();
+				entry = null;
+				return value;
+			}
+			entry = entryIterator.next();
+			return entry.getKey();
+		}
+	}
+
+	/**
+	 * Yields the key and then the value of each entry of a map, and splits along with the entries.
+	 */
+	private static final class ComponentSpliterator implements Spliterator<Object>, Consumer<Map.Entry<?,?>>
+	{
+		private final Spliterator<? extends Map.Entry<?,?>> entrySpliterator;
+		private Map.Entry<?,?> entry; //the entry whose key has been yielded, if its value has not been yielded yet.
+
+		ComponentSpliterator( Spliterator<? extends Map.Entry<?,?>> entrySpliterator )
+		{
+			this.entrySpliterator = entrySpliterator;
+		}
+
+		@Override public void accept( Map.Entry<?,?> entry )
+		{
+			this.entry = entry;
+		}
+
+		@Override public boolean tryAdvance( Consumer<? super Object> action )
+		{
+			if( entry != null )
+			{
+				Object value = entry.getValue();
+				entry = null;
+				action.accept( value );
+				return true;
+			}
+			if( !entrySpliterator.tryAdvance( this ) )
+				return false;
+			action.accept( entry.getKey() );
+			return true;
+		}
+
+		@Override public Spliterator<Object> trySplit()
+		{
+			//The prefix to split off would have to begin with the value of the current entry, so it cannot be split until that value has been yielded.
+			if( entry != null )
+				return null;
+			Spliterator<? extends Map.Entry<?,?>> prefix = entrySpliterator.trySplit();
+			return prefix == null ? null : new ComponentSpliterator( prefix );
+		}
+
+		@Override public long estimateSize()
+		{
+			long entryCount = entrySpliterator.estimateSize();
+			if( entryCount > Long.MAX_VALUE / 2 )
+				return Long.MAX_VALUE;
+			return entryCount * 2 + (entry == null ? 0 : 1);
+		}
+
+		@Override public int characteristics()
+		{
+			return entrySpliterator.characteristics() & (Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED);
+		}
 	}
 }
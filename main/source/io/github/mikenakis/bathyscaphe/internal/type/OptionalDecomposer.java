@@ -7,6 +7,8 @@
 
 package io.github.mikenakis.bathyscaphe.internal.type;
 
+import io.github.mikenakis.bathyscaphe.Decomposer;
+
 import java.util.List;
 import java.util.Optional;
 
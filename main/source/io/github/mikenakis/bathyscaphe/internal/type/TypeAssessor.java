@@ -7,24 +7,25 @@
 
 package io.github.mikenakis.bathyscaphe.internal.type;
 
+import io.github.mikenakis.bathyscaphe.Decomposer;
 import io.github.mikenakis.bathyscaphe.internal.helpers.Helpers;
-import io.github.mikenakis.bathyscaphe.internal.mykit.MyKit;
-import io.github.mikenakis.bathyscaphe.internal.mykit.Unit;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.ImmutableTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.TypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.UnderAssessmentTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.ThreadSafeMutableTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.CompositeProvisoryTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ProvisoryTypeAssessment;
 import io.github.mikenakis.bathyscaphe.internal.type.exceptions.PreassessedClassMustNotAlreadyBeImmutableException;
 import io.github.mikenakis.bathyscaphe.internal.type.exceptions.PreassessedClassMustNotBeExtensibleException;
 import io.github.mikenakis.bathyscaphe.internal.type.exceptions.PreassessedClassMustNotBePreviouslyAssessedException;
 import io.github.mikenakis.bathyscaphe.internal.type.exceptions.PreassessedTypeMustBeClassException;
-import io.github.mikenakis.debug.Debug;
 
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Deeply assesses the immutability of types. DO NOT USE; FOR INTERNAL USE ONLY.
@@ -43,8 +44,40 @@ public final class TypeAssessor
 		return assessor;
 	}
 
-	private final Lock lock = new ReentrantLock();
-	private final Map<Class<?>,TypeAssessment> assessmentsByType = new HashMap<>();
+	/**
+	 * Completed assessments, and assessments in progress. Lookups are lock-free; each type is assessed by a single thread, while other threads needing the
+	 * same type wait for it, and threads needing other types get on with them.
+	 * <p>
+	 * PEARL: a map keyed by {@link Class} would keep every class that was ever assessed reachable, and along with it the class-loader of that class, so
+	 * class-loaders of redeployed applications and reloaded plugins would never be collected. A {@link ClassValue} on the other hand stores each assessment
+	 * with the class itself, so the assessment becomes unreachable together with the class.
+	 */
+	private final ClassValue<Slot> slots = new ClassValue<>()
+	{
+		@Override protected Slot computeValue( Class<?> type )
+		{
+			return new Slot();
+		}
+	};
+
+	/**
+	 * The assessments in progress on each thread.
+	 * <p>
+	 * Assessing a type may recursively require assessing other types, which may in turn refer back to the type being assessed; such cycles are resolved by
+	 * means of {@link UnderAssessmentTypeAssessment}, which is only meaningful to the thread that issued it, so this is per thread.
+	 */
+	private final ThreadLocal<AssessmentStack> assessmentStacks = ThreadLocal.withInitial( AssessmentStack::new );
+
+	/**
+	 * The slot that each thread is waiting for, if any.
+	 * <p>
+	 * PEARL: when two threads assess types which refer to each other, each one may end up waiting for a type that the other one is assessing. Such a
+	 * cycle is detected by following the chain of threads waiting for slots owned by other threads. Every thread in the cycle may detect it, but only the
+	 * one with the greatest id backs off: it abandons everything it is assessing, and once the type it was waiting for is released, it starts over. So,
+	 * the whole cycle ends up being assessed by a single thread.
+	 */
+	private final Map<Thread,Slot> waitedSlots = new ConcurrentHashMap<>();
+
 	private final Reflector reflector = new Reflector( this );
 
 	TypeAssessor()
@@ -57,11 +90,7 @@ public final class TypeAssessor
 		assert addedClassMustBeClassTypeAssertion( jvmClass );
 		assert addedClassMustNotBeExtensibleClassTypeAssertion( jvmClass );
 		assert addedClassMustNotAlreadyBeImmutableAssertion( jvmClass );
-		MyKit.sync.lock( lock, () -> //
-		{
-			assessmentsByType.put( jvmClass, ImmutableTypeAssessment.instance );
-			return Unit.instance;
-		} );
+		slots.get( jvmClass ).assessment = ImmutableTypeAssessment.instance;
 	}
 
 	public void addThreadSafePreassessment( Class<?> jvmClass )
@@ -70,38 +99,188 @@ public final class TypeAssessor
 		assert addedClassMustBeClassTypeAssertion( jvmClass );
 		assert addedClassMustNotBeExtensibleClassTypeAssertion( jvmClass );
 		assert addedClassMustNotAlreadyBeImmutableAssertion( jvmClass );
-		MyKit.sync.lock( lock, () -> //
-		{
-			assessmentsByType.put( jvmClass, new ThreadSafeMutableTypeAssessment( jvmClass ) );
-			return Unit.instance;
-		} );
+		slots.get( jvmClass ).assessment = new ThreadSafeMutableTypeAssessment( jvmClass );
+	}
+
+	public <T, E> void addCompositePreassessment( Class<T> jvmClass, Decomposer<T,E> decomposer )
+	{
+		assert addedClassMustNotBePreviouslyAssessedAssertion( jvmClass );
+		assert addedClassMustBeClassTypeAssertion( jvmClass );
+		assert addedClassMustNotBeExtensibleClassTypeAssertion( jvmClass );
+		assert addedClassMustNotAlreadyBeImmutableAssertion( jvmClass );
+		ProvisoryTypeAssessment componentTypeAssessment = (ProvisoryTypeAssessment)assess( Object.class );
+		slots.get( jvmClass ).assessment = new CompositeProvisoryTypeAssessment<>( TypeAssessment.Mode.Preassessed, jvmClass, true, componentTypeAssessment, decomposer );
 	}
 
 	public TypeAssessment assess( Class<?> type )
 	{
-		return MyKit.sync.lock( lock, () -> //
-			Debug.boundary( () -> //
+		//PEARL: this is invoked for each object visited during object assessment, so it must not lock, and it must not allocate.
+		Slot slot = slots.get( type );
+		TypeAssessment existingAssessment = slot.assessment;
+		if( existingAssessment != null )
+			return existingAssessment;
+		return assessOrAwait( type, slot );
+	}
+
+	private TypeAssessment assessOrAwait( Class<?> type, Slot slot )
+	{
+		AssessmentStack assessmentStack = assessmentStacks.get();
+		TypeAssessment assessmentInProgress = assessmentStack.assessmentInProgress( type );
+		if( assessmentInProgress != null )
+			return assessmentInProgress;
+		if( !assessmentStack.isEmpty() )
+			return claimAndAssess( type, slot, assessmentStack );
+		for( ; ; )
+		{
+			try
+			{
+				return claimAndAssess( type, slot, assessmentStack );
+			}
+			catch( BackOff backOff )
 			{
-				TypeAssessment existingAssessment = assessmentsByType.get( type );
-				if( existingAssessment != null )
-					return existingAssessment;
-				assessmentsByType.put( type, UnderAssessmentTypeAssessment.instance );
-				TypeAssessment newAssessment = reflector.assess( type );
-				TypeAssessment oldAssessment = assessmentsByType.put( type, newAssessment );
-				assert oldAssessment == UnderAssessmentTypeAssessment.instance;
-				assert !(newAssessment instanceof UnderAssessmentTypeAssessment);
-				return newAssessment;
-			} ) );
+				assert assessmentStack.isEmpty();
+				awaitRelease( backOff.slot );
+			}
+		}
+	}
+
+	private TypeAssessment claimAndAssess( Class<?> type, Slot slot, AssessmentStack assessmentStack )
+	{
+		Thread currentThread = Thread.currentThread();
+		for( ; ; )
+		{
+			synchronized( slot )
+			{
+				if( slot.assessment != null )
+					return slot.assessment;
+				if( slot.owner == null )
+				{
+					slot.owner = currentThread;
+					break;
+				}
+			}
+			if( !await( slot, currentThread ) )
+				throw new BackOff( slot );
+		}
+		TypeAssessment newAssessment = null;
+		assessmentStack.push( type );
+		try
+		{
+			newAssessment = DefaultPreassessments.lazyPreassessment( this, type );
+			if( newAssessment == null )
+				newAssessment = reflector.assess( type );
+			assert !(newAssessment instanceof UnderAssessmentTypeAssessment);
+		}
+		finally
+		{
+			boolean complete = assessmentStack.pop( type, newAssessment );
+			//If the assessment failed, or if it is tentative, the slot is released without an assessment, so that the next thread to need it will assess it.
+			synchronized( slot )
+			{
+				assert slot.assessment == null;
+				slot.assessment = complete ? newAssessment : null;
+				slot.owner = null;
+				slot.notifyAll();
+			}
+		}
+		return newAssessment;
+	}
+
+	/**
+	 * Waits until a slot owned by another thread is released.
+	 *
+	 * @return {@code true} if the slot was released; {@code false} if the current thread must back off, because the owner of the slot is, directly or
+	 * 	indirectly, waiting for a slot owned by the current thread.
+	 */
+	private boolean await( Slot slot, Thread currentThread )
+	{
+		//PEARL: the wait is registered before looking for a cycle, so that if two threads close a cycle at the same time, at least one of them sees it.
+		waitedSlots.put( currentThread, slot );
+		boolean interrupted = false;
+		try
+		{
+			synchronized( slot )
+			{
+				while( slot.owner != null )
+				{
+					if( mustBackOff( slot.owner, currentThread ) )
+						return false;
+					//The timeout makes sure that a cycle closed by another thread while this one is waiting will be noticed.
+					interrupted |= waitUninterruptibly( slot, 10 );
+				}
+				return true;
+			}
+		}
+		finally
+		{
+			waitedSlots.remove( currentThread );
+			if( interrupted )
+				currentThread.interrupt();
+		}
+	}
+
+	/**
+	 * Waits until a slot is released, after the current thread has backed off. The current thread does not own any slots, so it cannot be part of a cycle.
+	 */
+	private static void awaitRelease( Slot slot )
+	{
+		boolean interrupted = false;
+		synchronized( slot )
+		{
+			while( slot.owner != null )
+				interrupted |= waitUninterruptibly( slot, 0 );
+		}
+		if( interrupted )
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Waits on a slot, deferring any interruption.
+	 *
+	 * @return {@code true} if the thread was interrupted while waiting.
+	 */
+	private static boolean waitUninterruptibly( Slot slot, long timeoutMilliseconds )
+	{
+		try
+		{
+			slot.wait( timeoutMilliseconds );
+			return false;
+		}
+		catch( InterruptedException ignore )
+		{
+			return true;
+		}
+	}
+
+	/**
+	 * Tells whether a chain of threads, each waiting for a slot owned by the next, leads from a thread back to the current thread, and the current thread
+	 * has the greatest id in that chain, so it is the one that must break the cycle.
+	 */
+	private boolean mustBackOff( Thread thread, Thread currentThread )
+	{
+		long currentThreadId = currentThread.threadId();
+		for( int i = 0; thread != null; i++ )
+		{
+			if( thread == currentThread )
+				return true;
+			if( thread.threadId() > currentThreadId )
+				return false;
+			Slot slot = waitedSlots.get( thread );
+			if( slot == null || i > waitedSlots.size() )
+				return false;
+			thread = slot.owner;
+		}
+		return false;
 	}
 
 	void addDefaultPreassessment( Class<?> jvmClass, TypeAssessment classAssessment )
 	{
-		assessmentsByType.put( jvmClass, classAssessment );
+		slots.get( jvmClass ).assessment = classAssessment;
 	}
 
 	private boolean addedClassMustNotBePreviouslyAssessedAssertion( Class<?> jvmClass )
 	{
-		TypeAssessment previousClassAssessment = assessmentsByType.get( jvmClass );
+		TypeAssessment previousClassAssessment = slots.get( jvmClass ).assessment;
 		assert previousClassAssessment == null : new PreassessedClassMustNotBePreviouslyAssessedException( previousClassAssessment );
 		return true;
 	}
@@ -127,4 +306,126 @@ public final class TypeAssessor
 			throw new PreassessedClassMustNotAlreadyBeImmutableException( jvmClass );
 		return true;
 	}
+
+	/**
+	 * The assessments in progress on a single thread.
+	 * <p>
+	 * PEARL: when a type refers back to a type which is still under assessment further down the stack, its assessment does not account for that type, so
+	 * it is tentative: it is good enough for assessing the type further down the stack, which accounts for itself, but it must not be published. Once the
+	 * type further down the stack is complete, the tentative assessments which depend on it are discarded, and the types are assessed again when next
+	 * needed, this time taking its complete assessment into account. This way, the assessment of each type accounts for every type reachable from it,
+	 * regardless of the order in which the types happen to be assessed.
+	 */
+	private static final class AssessmentStack
+	{
+		private final List<Frame> frames = new ArrayList<>();
+		private final Map<Class<?>,Frame> framesByType = new HashMap<>();
+		private final Map<Class<?>,TentativeAssessment> tentativeAssessments = new HashMap<>();
+
+		boolean isEmpty()
+		{
+			return frames.isEmpty();
+		}
+
+		/**
+		 * Returns the assessment of a type which is either under assessment or tentatively assessed by the current thread, or {@code null}.
+		 */
+		TypeAssessment assessmentInProgress( Class<?> type )
+		{
+			Frame frame = framesByType.get( type );
+			if( frame != null )
+			{
+				dependOn( frame.depth );
+				return UnderAssessmentTypeAssessment.instance;
+			}
+			TentativeAssessment tentativeAssessment = tentativeAssessments.get( type );
+			if( tentativeAssessment != null )
+			{
+				dependOn( tentativeAssessment.lowestDepth );
+				return tentativeAssessment.assessment;
+			}
+			return null;
+		}
+
+		void push( Class<?> type )
+		{
+			Frame frame = new Frame( frames.size() );
+			frames.add( frame );
+			framesByType.put( type, frame );
+		}
+
+		/**
+		 * Pops the assessment of a type.
+		 *
+		 * @param assessment the assessment of the type, or {@code null} if the assessment failed.
+		 *
+		 * @return {@code true} if the assessment is complete; {@code false} if it failed, or if it is tentative.
+		 */
+		boolean pop( Class<?> type, TypeAssessment assessment )
+		{
+			Frame frame = frames.remove( frames.size() - 1 );
+			framesByType.remove( type );
+			tentativeAssessments.values().removeIf( tentativeAssessment -> tentativeAssessment.lowestDepth >= frame.depth );
+			if( assessment == null )
+				return false;
+			if( frame.lowestDepth == frame.depth )
+				return true;
+			tentativeAssessments.put( type, new TentativeAssessment( assessment, frame.lowestDepth ) );
+			dependOn( frame.lowestDepth );
+			return false;
+		}
+
+		private void dependOn( int depth )
+		{
+			Frame frame = frames.get( frames.size() - 1 );
+			frame.lowestDepth = Math.min( frame.lowestDepth, depth );
+		}
+
+		private static final class Frame
+		{
+			final int depth;
+
+			/**
+			 * The lowest depth of any type under assessment that the assessment of this type has come to depend on.
+			 */
+			int lowestDepth;
+
+			Frame( int depth )
+			{
+				this.depth = depth;
+				lowestDepth = depth;
+			}
+		}
+
+		private record TentativeAssessment( TypeAssessment assessment, int lowestDepth )
+		{
+		}
+	}
+
+	/**
+	 * Thrown to unwind all assessments in progress on a thread which must back off in order to break a cycle.
+	 */
+	private static final class BackOff extends RuntimeException
+	{
+		final Slot slot;
+
+		BackOff( Slot slot )
+		{
+			super( null, null, false, false );
+			this.slot = slot;
+		}
+	}
+
+	/**
+	 * Holds the assessment of a single type, once it becomes available.
+	 */
+	private static final class Slot
+	{
+		volatile TypeAssessment assessment;
+
+		/**
+		 * The thread currently assessing the type, or {@code null}.
+		 */
+		volatile Thread owner;
+	}
 }
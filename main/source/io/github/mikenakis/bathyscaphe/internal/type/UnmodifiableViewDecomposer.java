@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal.type;
+
+import io.github.mikenakis.bathyscaphe.IndexedDecomposer;
+import io.github.mikenakis.bathyscaphe.internal.type.field.FieldAccessor;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decomposes an unmodifiable view of {@link Collections} into the collection or map that it is a view of.
+ * <p>
+ * PEARL: an unmodifiable view is only as immutable as the collection behind it, which can still be modified by whoever holds a reference to it. So, the
+ * view cannot be decomposed into its elements; it has to be decomposed into the collection behind it. The JDK offers no public means of reaching that
+ * collection, so it is read from a field of the view, which requires the {@code java.util} package to be opened to Bathyscaphe. If it has not been
+ * opened, then the view cannot be decomposed, so it is assessed as mutable.
+ *
+ * @author michael.gr
+ */
+final class UnmodifiableViewDecomposer implements IndexedDecomposer<Object,Object>
+{
+	private final FieldAccessor backingFieldAccessor;
+	private final String backingFieldName;
+
+	UnmodifiableViewDecomposer( FieldAccessor backingFieldAccessor, String backingFieldName )
+	{
+		assert backingFieldAccessor.isAccessible();
+		this.backingFieldAccessor = backingFieldAccessor;
+		this.backingFieldName = backingFieldName;
+	}
+
+	@Override public Iterable<Object> decompose( Object view )
+	{
+		return List.of( backingFieldAccessor.get( view ) );
+	}
+
+	@Override public int size( Object view )
+	{
+		return 1;
+	}
+
+	@Override public Object component( Object view, int index )
+	{
+		assert index == 0;
+		return backingFieldAccessor.get( view );
+	}
+
+	@Override public String describeComponent( Object view, int index )
+	{
+		return "the collection behind field '" + backingFieldName + "'";
+	}
+
+	static Field findField( Class<?> jvmClass, String fieldName )
+	{
+		for( Class<?> type = jvmClass; type != null; type = type.getSuperclass() )
+		{
+			try
+			{
+				return type.getDeclaredField( fieldName );
+			}
+			catch( NoSuchFieldException ignore )
+			{
+			}
+		}
+		throw new AssertionError( jvmClass.getName() + "." + fieldName );
+	}
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable;
+
+import java.lang.reflect.Field;
+
+/**
+ * Signifies that a class is mutable because a field which would have to be read in order to assess instances of the class is inaccessible.
+ *
+ * @author michael.gr
+ */
+public final class InaccessibleFieldMutableTypeAssessment extends MutableTypeAssessment
+{
+	public final Field field;
+
+	public InaccessibleFieldMutableTypeAssessment( Class<?> jvmClass, Field field )
+	{
+		super( jvmClass, false );
+		this.field = field;
+	}
+
+	@Override public boolean isThreadSafe() { return threadSafe; }
+}
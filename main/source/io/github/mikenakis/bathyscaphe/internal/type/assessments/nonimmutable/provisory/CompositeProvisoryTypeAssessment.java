@@ -7,8 +7,8 @@
 
 package io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory;
 
+import io.github.mikenakis.bathyscaphe.Decomposer;
 import io.github.mikenakis.bathyscaphe.internal.assessments.Assessment;
-import io.github.mikenakis.bathyscaphe.internal.type.Decomposer;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.TypeAssessment;
 
 import java.util.List;
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.internal.type.field;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+
+/**
+ * Reads the value of a field from objects. DO NOT USE; FOR INTERNAL USE ONLY.
+ * <p>
+ * Access to the field is established once, when the accessor is created, so reading the field does not involve {@code java.lang.reflect} at all.
+ * <p>
+ * If the module system does not allow access to the field, the accessor remembers the reason, and each attempt to read the field fails with an
+ * {@link InaccessibleObjectException} stating that reason, without retrying to gain access.
+ *
+ * @author michael.gr
+ */
+public final class FieldAccessor
+{
+	private static final MethodType getterMethodType = MethodType.methodType( Object.class, Object.class );
+
+	public static FieldAccessor of( Field field )
+	{
+		try
+		{
+			MethodHandles.Lookup lookup = MethodHandles.privateLookupIn( field.getDeclaringClass(), MethodHandles.lookup() );
+			MethodHandle getter = lookup.unreflectGetter( field ).asType( getterMethodType );
+			return new FieldAccessor( getter, null );
+		}
+		catch( IllegalAccessException e )
+		{
+			return new FieldAccessor( null, "Unable to access field '" + field.getName() + "' of '" + field.getDeclaringClass().getName() + "': " + e.getMessage() );
+		}
+	}
+
+	private final MethodHandle getter;
+	private final String inaccessibilityMessage;
+
+	private FieldAccessor( MethodHandle getter, String inaccessibilityMessage )
+	{
+		assert (getter == null) != (inaccessibilityMessage == null);
+		this.getter = getter;
+		this.inaccessibilityMessage = inaccessibilityMessage;
+	}
+
+	/**
+	 * Tells whether the field can be read, which is not the case if the package declaring it has not been opened to Bathyscaphe.
+	 */
+	public boolean isAccessible()
+	{
+		return getter != null;
+	}
+
+	public Object get( Object object )
+	{
+		if( getter == null )
+			throw new InaccessibleObjectException( inaccessibilityMessage );
+		try
+		{
+			return (Object)getter.invokeExact( object );
+		}
+		catch( RuntimeException | Error e )
+		{
+			throw e;
+		}
+		catch( Throwable throwable )
+		{
+			throw new RuntimeException( throwable );
+		}
+	}
+}
@@ -9,6 +9,7 @@ package io.github.mikenakis.bathyscaphe.internal.type.field.assessments.nonimmut
 
 import io.github.mikenakis.bathyscaphe.internal.assessments.Assessment;
 import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.provisory.ProvisoryTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.field.FieldAccessor;
 import io.github.mikenakis.bathyscaphe.internal.type.field.assessments.nonimmutable.NonImmutableFieldAssessment;
 
 import java.lang.reflect.Field;
@@ -22,12 +23,14 @@ import java.util.List;
 public final class ProvisoryFieldTypeProvisoryFieldAssessment extends NonImmutableFieldAssessment
 {
 	public final ProvisoryTypeAssessment fieldTypeAssessment;
+	public final FieldAccessor accessor;
 
 	public ProvisoryFieldTypeProvisoryFieldAssessment( Field field, boolean threadSafe, ProvisoryTypeAssessment fieldTypeAssessment )
 	{
 		super( field, threadSafe );
 		assert fieldTypeAssessment.type == field.getType();
 		this.fieldTypeAssessment = fieldTypeAssessment;
+		accessor = FieldAccessor.of( field );
 	}
 
 	@Override public List<Assessment> children() { return List.of( fieldTypeAssessment ); }
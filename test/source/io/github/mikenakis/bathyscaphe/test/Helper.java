@@ -8,6 +8,7 @@
 package io.github.mikenakis.bathyscaphe.test;
 
 import io.github.mikenakis.bathyscaphe.internal.ObjectAssessor;
+import io.github.mikenakis.bathyscaphe.internal.assessments.ImmutableObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.ObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.diagnostic.AssessmentPrinter;
 import io.github.mikenakis.debug.Debug;
@@ -47,6 +48,8 @@ public final class Helper
 				throw throwable;
 			}
 			AssessmentPrinter.getText( assessment ).forEach( s -> printStream.print( "    " + s + "\n" ) );
+			assert ObjectAssessor.instance.isImmutable( object ) == assessment instanceof ImmutableObjectAssessment;
+			assert ObjectAssessor.instance.isThreadSafe( object ) == assessment.isThreadSafe();
 			return assessment;
 		}
 	}
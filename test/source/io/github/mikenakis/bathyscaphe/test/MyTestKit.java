@@ -9,6 +9,7 @@ package io.github.mikenakis.bathyscaphe.test;
 
 import io.github.mikenakis.debug.Debug;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -71,6 +72,26 @@ public final class MyTestKit
 		return Paths.get( System.getProperty( "user.dir" ) ).toAbsolutePath().normalize();
 	}
 
+	/**
+	 * Runs the {@code main} method of a class in a separate JVM with the same class path, and returns whatever it prints.
+	 * <p>
+	 * The separate JVM has assertions and preview features enabled, but no other options, so it starts from a clean slate.
+	 */
+	public static String runInSeparateJvm( Class<?> mainClass )
+	{
+		String javaExecutable = Path.of( System.getProperty( "java.home" ), "bin", "java" ).toString();
+		ProcessBuilder processBuilder = new ProcessBuilder( javaExecutable, "--enable-preview", "-ea", "-cp", System.getProperty( "java.class.path" ), //
+			mainClass.getName() );
+		processBuilder.redirectErrorStream( true );
+		return unchecked( () -> //
+		{
+			Process process = processBuilder.start();
+			String text = new String( process.getInputStream().readAllBytes(), StandardCharsets.UTF_8 );
+			assert process.waitFor() == 0 : text;
+			return text;
+		} );
+	}
+
 	/**
 	 * A method which accepts no arguments, returns a value, and declares a checked exception.
 	 *
@@ -7,11 +7,21 @@
 
 package io.github.mikenakis.bathyscaphe.test;
 
+import io.github.mikenakis.bathyscaphe.AssessmentBudget;
+import io.github.mikenakis.bathyscaphe.AssessmentLevel;
 import io.github.mikenakis.bathyscaphe.Bathyscaphe;
 import io.github.mikenakis.bathyscaphe.ImmutabilitySelfAssessable;
+import io.github.mikenakis.bathyscaphe.ImmutableObjectCacheStatistics;
+import io.github.mikenakis.bathyscaphe.IncrementalAssessment;
+import io.github.mikenakis.bathyscaphe.IndexedDecomposer;
+import io.github.mikenakis.bathyscaphe.ObjectAssessmentInconclusiveException;
+import io.github.mikenakis.bathyscaphe.ObjectMustBeImmutableException;
+import io.github.mikenakis.bathyscaphe.SampledAssertion;
 import io.github.mikenakis.bathyscaphe.annotations.Invariable;
 import io.github.mikenakis.bathyscaphe.annotations.InvariableArray;
+import io.github.mikenakis.bathyscaphe.internal.ObjectAssessor;
 import io.github.mikenakis.bathyscaphe.internal.assessments.ImmutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.InconclusiveObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.MutableObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.ObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableClassMutableObjectAssessment;
@@ -34,9 +44,18 @@ import io.github.mikenakis.bathyscaphe.internal.type.exceptions.SelfAssessableCl
 import io.github.mikenakis.bathyscaphe.internal.type.exceptions.VariableFieldMayNotBeAnnotatedInvariableArrayException;
 import org.junit.Test;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Test.
@@ -754,4 +773,675 @@ public class T10_Immutability
 			}
 		}.run();
 	}
+
+	@Test public void immutable_object_with_mutable_grand_super_is_mutable()
+	{
+		Method method = Helper.getCurrentMethod();
+		new Runnable()
+		{
+			static class GrandSuperclass
+			{
+				@SuppressWarnings( "unused" ) final Object provisoryFieldWithMutableValue = new StringBuilder();
+			}
+
+			static class Superclass extends GrandSuperclass
+			{
+				@SuppressWarnings( "unused" ) final Object provisoryFieldWithImmutableValue = "";
+			}
+
+			static final class Derived extends Superclass
+			{ }
+
+			@Override public void run()
+			{
+				var object = new Derived();
+				ObjectAssessment assessment = Helper.assess( method, object );
+				var mutableSuperclassMutableObjectAssessment = (MutableSuperObjectMutableObjectAssessment)assessment;
+				assert mutableSuperclassMutableObjectAssessment.object() == object;
+				var mutableGrandSuperclassMutableObjectAssessment = (MutableSuperObjectMutableObjectAssessment)mutableSuperclassMutableObjectAssessment.mutableSuperObjectAssessment;
+				assert mutableGrandSuperclassMutableObjectAssessment.object() == object;
+				assert mutableGrandSuperclassMutableObjectAssessment.typeAssessment.type == Superclass.class;
+				var mutableFieldValueMutableObjectAssessment = (MutableFieldValueMutableObjectAssessment)mutableGrandSuperclassMutableObjectAssessment.mutableSuperObjectAssessment;
+				assert mutableFieldValueMutableObjectAssessment.fieldValueAssessment.object() == object.provisoryFieldWithMutableValue;
+			}
+		}.run();
+	}
+
+	@Test public void specialized_assessment_follows_changes_in_the_class_of_field_values()
+	{
+		Method method = Helper.getCurrentMethod();
+		new Runnable()
+		{
+			static final class Holder
+			{
+				@SuppressWarnings( "unused" ) private final Object provisoryField;
+
+				Holder( Object provisoryField )
+				{
+					this.provisoryField = provisoryField;
+				}
+			}
+
+			@Override public void run()
+			{
+				int specializationThreshold = ObjectAssessor.instance.specializationThreshold();
+				Bathyscaphe.setSpecializationThreshold( 0 );
+				try
+				{
+					assert ObjectAssessor.instance.assess( new Holder( 1 ) ) instanceof ImmutableObjectAssessment;
+					assert ObjectAssessor.instance.assess( new Holder( 2 ) ) instanceof ImmutableObjectAssessment;
+					assert ObjectAssessor.instance.assess( new Holder( "" ) ) instanceof ImmutableObjectAssessment;
+					assert ObjectAssessor.instance.assess( new Holder( new ArrayList<>() ) ) instanceof MutableObjectAssessment;
+					var object = new Holder( new StringBuilder() );
+					ObjectAssessment assessment = Helper.assess( method, object );
+					var mutableFieldValueMutableObjectAssessment = (MutableFieldValueMutableObjectAssessment)assessment;
+					assert mutableFieldValueMutableObjectAssessment.fieldValueAssessment.object() == object.provisoryField;
+				}
+				finally
+				{
+					Bathyscaphe.setSpecializationThreshold( specializationThreshold );
+				}
+			}
+		}.run();
+	}
+
+	@Test public void deeply_nested_object_is_assessed_without_overflowing_the_stack()
+	{
+		new Runnable()
+		{
+			static final class Node
+			{
+				private final Object next;
+
+				Node( Object next )
+				{
+					this.next = next;
+				}
+			}
+
+			@Override public void run()
+			{
+				int nodeCount = 200_000;
+				Object immutableChain = null;
+				for( int i = 0; i < nodeCount; i++ )
+					immutableChain = new Node( immutableChain );
+				assert ObjectAssessor.instance.assess( immutableChain ) instanceof ImmutableObjectAssessment;
+
+				var mutableTail = new StringBuilder();
+				Object mutableChain = mutableTail;
+				for( int i = 0; i < nodeCount; i++ )
+					mutableChain = new Node( mutableChain );
+				MutableObjectAssessment assessment = (MutableObjectAssessment)ObjectAssessor.instance.assess( mutableChain );
+				for( int i = 0; i < nodeCount; i++ )
+				{
+					var mutableFieldValueMutableObjectAssessment = (MutableFieldValueMutableObjectAssessment)assessment;
+					assessment = mutableFieldValueMutableObjectAssessment.fieldValueAssessment;
+				}
+				assert assessment.object() == mutableTail;
+			}
+		}.run();
+	}
+
+	@Test public void distinct_but_equal_objects_are_all_assessed()
+	{
+		Method method = Helper.getCurrentMethod();
+		new Runnable()
+		{
+			@SuppressWarnings( { "EqualsWhichDoesntCheckParameterClass", "EqualsAndHashcode" } )
+			static final class EqualToEverything
+			{
+				@SuppressWarnings( "unused" ) private final Object provisoryField;
+
+				EqualToEverything( Object provisoryField )
+				{
+					this.provisoryField = provisoryField;
+				}
+
+				@Override public boolean equals( Object other )
+				{
+					return true;
+				}
+
+				@Override public int hashCode()
+				{
+					return 0;
+				}
+			}
+
+			@Override public void run()
+			{
+				var mutableElement = new EqualToEverything( new StringBuilder() );
+				var object = List.of( new EqualToEverything( 1 ), mutableElement );
+				ObjectAssessment assessment = Helper.assess( method, object );
+				var mutableObjectAssessment = (MutableObjectAssessment)assessment;
+				assert mutableObjectAssessment.object() == object;
+			}
+		}.run();
+	}
+
+	@Test public void bulk_assessment_reports_every_mutable_object()
+	{
+		new Runnable()
+		{
+			static final class Pair
+			{
+				@SuppressWarnings( "unused" ) private final Object first;
+				@SuppressWarnings( "unused" ) private final Object second;
+
+				Pair( Object first, Object second )
+				{
+					this.first = first;
+					this.second = second;
+				}
+			}
+
+			@Override public void run()
+			{
+				for( boolean parallel : new boolean[] { false, true } )
+				{
+					var shared = List.of( "a", "b", "c" );
+					var sharedMutable = new Pair( shared, new ArrayList<>() );
+					List<Object> objects = new ArrayList<>();
+					for( int i = 0; i < 1000; i++ )
+						objects.add( new Pair( i, i % 100 == 7 ? sharedMutable : shared ) );
+					AtomicLong progress = new AtomicLong();
+					List<ObjectMustBeImmutableException> exceptions = Bathyscaphe.immutabilityViolations( objects, parallel, n -> progress.accumulateAndGet( n, Math::max ) );
+					assert progress.get() == objects.size();
+					assert exceptions.size() == 10;
+					for( int i = 0; i < exceptions.size(); i++ )
+						assert exceptions.get( i ).mutableObjectAssessment.object() == objects.get( i * 100 + 7 );
+				}
+			}
+		}.run();
+	}
+
+	@Test public void cached_immutable_objects_are_not_assessed_again()
+	{
+		new Runnable()
+		{
+			static final class Node
+			{
+				@SuppressWarnings( "unused" ) private final Object value;
+				@SuppressWarnings( "unused" ) private final Object next;
+
+				Node( Object value, Object next )
+				{
+					this.value = value;
+					this.next = next;
+				}
+			}
+
+			@Override public void run()
+			{
+				Bathyscaphe.enableImmutableObjectCache( 1000 );
+				try
+				{
+					Node version1 = new Node( 1, new Node( 2, new Node( 3, null ) ) );
+					assert Bathyscaphe.objectMustBeImmutableAssertion( version1 );
+					ImmutableObjectCacheStatistics statistics = Bathyscaphe.immutableObjectCacheStatistics();
+					assert statistics.hitCount() == 0;
+					assert statistics.size() == 3;
+
+					assert Bathyscaphe.objectMustBeImmutableAssertion( version1 );
+					statistics = Bathyscaphe.immutableObjectCacheStatistics();
+					assert statistics.hitCount() == 1;
+
+					Node version2 = new Node( 0, version1 );
+					assert Bathyscaphe.objectMustBeImmutableAssertion( version2 );
+					statistics = Bathyscaphe.immutableObjectCacheStatistics();
+					assert statistics.hitCount() == 2;
+					assert statistics.size() == 4;
+
+					Node mutableVersion = new Node( new ArrayList<>(), version2 );
+					assert ObjectAssessor.instance.assess( mutableVersion ) instanceof MutableObjectAssessment;
+					assert Bathyscaphe.immutableObjectCacheStatistics().size() == 4;
+				}
+				finally
+				{
+					Bathyscaphe.disableImmutableObjectCache();
+				}
+			}
+		}.run();
+	}
+
+	@Test public void detached_exception_does_not_keep_assessed_objects_alive()
+	{
+		new Runnable()
+		{
+			static final class Holder
+			{
+				@SuppressWarnings( "unused" ) private final Object provisoryField;
+
+				Holder( Object provisoryField )
+				{
+					this.provisoryField = provisoryField;
+				}
+			}
+
+			private WeakReference<Object> mutableObjectReference;
+
+			private ObjectMustBeImmutableException assertMutableObject()
+			{
+				var mutableObject = new StringBuilder();
+				mutableObjectReference = new WeakReference<>( mutableObject );
+				var object = new Holder( List.of( 1, new Holder( mutableObject ) ) );
+				try
+				{
+					Bathyscaphe.objectMustBeImmutableAssertion( object );
+				}
+				catch( ObjectMustBeImmutableException exception )
+				{
+					return exception;
+				}
+				throw new AssertionError();
+			}
+
+			@Override public void run()
+			{
+				Bathyscaphe.setDetachedDiagnostics( true );
+				ObjectMustBeImmutableException exception;
+				try
+				{
+					exception = assertMutableObject();
+				}
+				finally
+				{
+					Bathyscaphe.setDetachedDiagnostics( false );
+				}
+				assert exception.mutableObjectAssessment == null;
+				for( int i = 0; i < 100 && mutableObjectReference.get() != null; i++ )
+				{
+					System.gc();
+					MyTestKit.unchecked( () -> Thread.sleep( 10 ) );
+				}
+				assert mutableObjectReference.get() == null;
+				assert exception.mutablePath().toString().equals( Holder.class.getName() + ".provisoryField[1].provisoryField -> java.lang.StringBuilder" );
+				List<String> text = Bathyscaphe.explain( exception );
+				assert text.get( 0 ).contains( "is mutable because field 'provisoryField' contains mutable instance of 'java.util.ImmutableCollections.List12'" );
+				assert Bathyscaphe.explain( exception ).equals( text );
+			}
+		}.run();
+	}
+
+	@Test public void stackless_exception_has_no_stack_trace_but_complete_diagnostics()
+	{
+		Object object = List.of( 1, new StringBuilder() );
+		ObjectMustBeImmutableException withStackTrace = MyTestKit.expect( ObjectMustBeImmutableException.class, () -> //
+			Bathyscaphe.objectMustBeImmutableAssertion( object ) );
+		Bathyscaphe.setStacklessExceptions( true );
+		ObjectMustBeImmutableException withoutStackTrace;
+		try
+		{
+			withoutStackTrace = MyTestKit.expect( ObjectMustBeImmutableException.class, () -> //
+				Bathyscaphe.objectMustBeImmutableAssertion( object ) );
+		}
+		finally
+		{
+			Bathyscaphe.setStacklessExceptions( false );
+		}
+		assert withStackTrace.getStackTrace().length > 0;
+		assert withoutStackTrace.getStackTrace().length == 0;
+		assert withoutStackTrace.mutablePath().toString().equals( withStackTrace.mutablePath().toString() );
+		assert Bathyscaphe.explain( withoutStackTrace ).equals( Bathyscaphe.explain( withStackTrace ) );
+	}
+
+	@Test public void sampled_assertion_assesses_only_sampled_objects()
+	{
+		SampledAssertion sampledAssertion = SampledAssertion.oneIn( 3 );
+		for( int i = 0; i < 7; i++ )
+		{
+			Object object = new StringBuilder();
+			if( i % 3 == 0 )
+				MyTestKit.expect( ObjectMustBeImmutableException.class, () -> sampledAssertion.objectMustBeImmutableAssertion( object ) );
+			else
+				assert sampledAssertion.objectMustBeImmutableAssertion( object );
+		}
+		assert sampledAssertion.checkedCount() == 3;
+		assert sampledAssertion.skippedCount() == 4;
+	}
+
+	@Test public void sampled_assertion_per_root_type_samples_each_type_separately()
+	{
+		SampledAssertion sampledAssertion = SampledAssertion.firstThenOneIn( 2, 1000 ).perRootType();
+		for( int i = 0; i < 10; i++ )
+		{
+			assert sampledAssertion.objectMustBeImmutableAssertion( "" );
+			assert sampledAssertion.objectMustBeImmutableAssertion( 1 );
+		}
+		assert sampledAssertion.checkedCount() == 4;
+		assert sampledAssertion.skippedCount() == 16;
+	}
+
+	@Test public void sampled_assertion_honors_assessment_levels()
+	{
+		SampledAssertion sampledAssertion = SampledAssertion.oneIn( 1 );
+		Object shallowlyImmutableObject = List.of( new StringBuilder() );
+		Object mutableObject = new StringBuilder();
+		try
+		{
+			Bathyscaphe.setAssessmentLevel( AssessmentLevel.Off );
+			assert sampledAssertion.objectMustBeImmutableAssertion( mutableObject );
+			assert sampledAssertion.objectMustBeThreadSafeAssertion( mutableObject );
+			Bathyscaphe.setAssessmentLevel( AssessmentLevel.TypeOnly );
+			assert sampledAssertion.objectMustBeImmutableAssertion( shallowlyImmutableObject );
+			MyTestKit.expect( ObjectMustBeImmutableException.class, () -> sampledAssertion.objectMustBeImmutableAssertion( mutableObject ) );
+			assert sampledAssertion.checkedCount() == 0;
+			assert sampledAssertion.skippedCount() == 0;
+			Bathyscaphe.setAssessmentLevel( AssessmentLevel.Full );
+			MyTestKit.expect( ObjectMustBeImmutableException.class, () -> sampledAssertion.objectMustBeImmutableAssertion( shallowlyImmutableObject ) );
+			assert sampledAssertion.checkedCount() == 1;
+		}
+		finally
+		{
+			Bathyscaphe.setAssessmentLevel( AssessmentLevel.Full );
+		}
+	}
+
+	@Test public void assessment_levels_can_be_changed_at_runtime_by_package_and_by_class()
+	{
+		Object shallowlyImmutableObject = List.of( new StringBuilder() );
+		Object mutableObject = new StringBuilder();
+		try
+		{
+			Bathyscaphe.setAssessmentLevel( AssessmentLevel.Off );
+			assert Bathyscaphe.objectMustBeImmutableAssertion( shallowlyImmutableObject );
+			assert Bathyscaphe.objectMustBeImmutableAssertion( mutableObject );
+			Bathyscaphe.setAssessmentLevel( AssessmentLevel.TypeOnly );
+			assert Bathyscaphe.objectMustBeImmutableAssertion( shallowlyImmutableObject );
+			MyTestKit.expect( ObjectMustBeImmutableException.class, () -> Bathyscaphe.objectMustBeImmutableAssertion( mutableObject ) );
+			Bathyscaphe.setAssessmentLevel( AssessmentLevel.Full );
+			Bathyscaphe.setAssessmentLevel( "java", AssessmentLevel.Off );
+			assert Bathyscaphe.objectMustBeImmutableAssertion( shallowlyImmutableObject );
+			assert Bathyscaphe.objectMustBeImmutableAssertion( mutableObject );
+			Bathyscaphe.setAssessmentLevel( StringBuilder.class, AssessmentLevel.Full );
+			assert Bathyscaphe.objectMustBeImmutableAssertion( shallowlyImmutableObject );
+			MyTestKit.expect( ObjectMustBeImmutableException.class, () -> Bathyscaphe.objectMustBeImmutableAssertion( mutableObject ) );
+			Bathyscaphe.setAssessmentLevel( "java", null );
+			MyTestKit.expect( ObjectMustBeImmutableException.class, () -> Bathyscaphe.objectMustBeImmutableAssertion( shallowlyImmutableObject ) );
+			Bathyscaphe.setAssessmentLevel( StringBuilder.class, null );
+			SampledAssertion sampledAssertion = SampledAssertion.oneIn( 2 );
+			Bathyscaphe.setSampledAssertion( sampledAssertion );
+			Bathyscaphe.setAssessmentLevel( AssessmentLevel.Sampled );
+			MyTestKit.expect( ObjectMustBeImmutableException.class, () -> Bathyscaphe.objectMustBeImmutableAssertion( mutableObject ) );
+			assert Bathyscaphe.objectMustBeImmutableAssertion( mutableObject );
+			assert sampledAssertion.checkedCount() == 1;
+			assert sampledAssertion.skippedCount() == 1;
+		}
+		finally
+		{
+			Bathyscaphe.setAssessmentLevel( "java", null );
+			Bathyscaphe.setAssessmentLevel( StringBuilder.class, null );
+			Bathyscaphe.setAssessmentLevel( AssessmentLevel.Full );
+			Bathyscaphe.setSampledAssertion( SampledAssertion.oneIn( 100 ).perRootType() );
+		}
+	}
+
+	@Test public void budgeted_assessment_exceeding_a_limit_is_inconclusive()
+	{
+		List<Object> wideObject = new ArrayList<>();
+		for( int i = 0; i < 5000; i++ )
+			wideObject.add( List.of( i ) );
+		Object deepObject = List.of();
+		for( int i = 0; i < 50; i++ )
+			deepObject = List.of( deepObject );
+		Object wideImmutableObject = List.copyOf( wideObject );
+		Object deepImmutableObject = deepObject;
+
+		var objectCountException = MyTestKit.expect( ObjectAssessmentInconclusiveException.class, () -> //
+			Bathyscaphe.objectMustBeImmutableAssertion( wideImmutableObject, AssessmentBudget.unlimited.withMaximumObjectCount( 10 ) ) );
+		assert objectCountException.exceededLimit == AssessmentBudget.Limit.ObjectCount;
+		assert objectCountException.visitedObjectCount == 10;
+		assert objectCountException.reachedDepth == 2;
+
+		var depthException = MyTestKit.expect( ObjectAssessmentInconclusiveException.class, () -> //
+			Bathyscaphe.objectMustBeImmutableAssertion( deepImmutableObject, AssessmentBudget.unlimited.withMaximumDepth( 10 ) ) );
+		assert depthException.exceededLimit == AssessmentBudget.Limit.Depth;
+		assert depthException.reachedDepth == 11;
+
+		Thread.currentThread().interrupt();
+		var interruptionException = MyTestKit.expect( ObjectAssessmentInconclusiveException.class, () -> //
+			Bathyscaphe.objectMustBeImmutableAssertion( wideImmutableObject, AssessmentBudget.unlimited.withInterruptible( true ) ) );
+		assert Thread.interrupted();
+		assert interruptionException.exceededLimit == AssessmentBudget.Limit.Interruption;
+
+		AssessmentBudget sufficientBudget = AssessmentBudget.unlimited.withMaximumObjectCount( 100_000 ).withMaximumDepth( 100 ).withTimeLimit( Duration.ofMinutes( 1 ) );
+		assert Bathyscaphe.objectMustBeImmutableAssertion( wideImmutableObject, sufficientBudget );
+		assert Bathyscaphe.objectMustBeImmutableAssertion( deepImmutableObject, sufficientBudget );
+		MyTestKit.expect( ObjectMustBeImmutableException.class, () -> //
+			Bathyscaphe.objectMustBeImmutableAssertion( List.of( List.of( new StringBuilder() ) ), sufficientBudget ) );
+	}
+
+	@Test public void budgeted_assessment_of_huge_collection_of_strings_is_inconclusive()
+	{
+		List<String> strings = new ArrayList<>();
+		for( int i = 0; i < 100_000; i++ )
+			strings.add( String.valueOf( i ) );
+		Map<String,String> stringMap = new HashMap<>();
+		for( String string : strings )
+			stringMap.put( string, string );
+		for( Object object : List.of( List.copyOf( strings ), Map.copyOf( stringMap ) ) )
+		{
+			ObjectAssessment timeLimitAssessment = ObjectAssessor.instance.assess( object, AssessmentBudget.unlimited.withTimeLimit( Duration.ofNanos( 1 ) ) );
+			assert timeLimitAssessment instanceof InconclusiveObjectAssessment inconclusiveAssessment && //
+				inconclusiveAssessment.exceededLimit == AssessmentBudget.Limit.Time;
+
+			Thread.currentThread().interrupt();
+			ObjectAssessment interruptionAssessment = ObjectAssessor.instance.assess( object, AssessmentBudget.unlimited.withInterruptible( true ) );
+			assert Thread.interrupted();
+			assert interruptionAssessment instanceof InconclusiveObjectAssessment inconclusiveAssessment && //
+				inconclusiveAssessment.exceededLimit == AssessmentBudget.Limit.Interruption;
+
+			assert ObjectAssessor.instance.assess( object, AssessmentBudget.unlimited ) instanceof ImmutableObjectAssessment;
+		}
+	}
+
+	@Test public void incremental_assessment_reaches_the_same_verdict_in_slices()
+	{
+		List<Object> elements = new ArrayList<>();
+		for( int i = 0; i < 1000; i++ )
+			elements.add( List.of( i, List.of( i ) ) );
+		Object immutableObject = List.copyOf( elements );
+		elements.set( 700, List.of( 700, List.of( new StringBuilder() ) ) );
+		Object mutableObject = List.copyOf( elements );
+
+		IncrementalAssessment immutableAssessment = Bathyscaphe.incrementalAssessment( immutableObject );
+		int immutableSliceCount = 0;
+		while( immutableAssessment.step( 100 ) == IncrementalAssessment.Status.InProgress )
+			immutableSliceCount++;
+		assert immutableAssessment.status() == IncrementalAssessment.Status.Immutable;
+		assert immutableAssessment.visitedObjectCount() == 4001;
+		assert immutableSliceCount == 40;
+
+		IncrementalAssessment mutableAssessment = Bathyscaphe.incrementalAssessment( mutableObject );
+		while( mutableAssessment.step( 100 ) == IncrementalAssessment.Status.InProgress )
+			assert mutableAssessment.exception() == null;
+		assert mutableAssessment.status() == IncrementalAssessment.Status.Mutable;
+		ObjectMustBeImmutableException exception = MyTestKit.expect( ObjectMustBeImmutableException.class, () -> //
+			Bathyscaphe.objectMustBeImmutableAssertion( mutableObject ) );
+		assert Bathyscaphe.explain( mutableAssessment.exception() ).equals( Bathyscaphe.explain( exception ) );
+
+		IncrementalAssessment cancelledAssessment = Bathyscaphe.incrementalAssessment( mutableObject );
+		assert cancelledAssessment.step( 100 ) == IncrementalAssessment.Status.InProgress;
+		cancelledAssessment.cancel();
+		assert cancelledAssessment.step( 100 ) == IncrementalAssessment.Status.Cancelled;
+	}
+
+	@Test public void incremental_assessment_of_huge_collection_of_strings_takes_many_slices()
+	{
+		List<String> strings = new ArrayList<>();
+		for( int i = 0; i < 10_000; i++ )
+			strings.add( String.valueOf( i ) );
+		IncrementalAssessment assessment = Bathyscaphe.incrementalAssessment( List.copyOf( strings ) );
+		int sliceCount = 0;
+		while( assessment.step( 100 ) == IncrementalAssessment.Status.InProgress )
+			sliceCount++;
+		assert assessment.status() == IncrementalAssessment.Status.Immutable;
+		assert assessment.visitedObjectCount() == 10_001;
+		assert sliceCount == 100;
+	}
+
+	private static final class ClassWithLargeInvariableArray
+	{
+		@SuppressWarnings( "unused" ) @InvariableArray private final Object[] arrayField;
+
+		ClassWithLargeInvariableArray( Object[] arrayField )
+		{
+			this.arrayField = arrayField;
+		}
+	}
+
+	@Test public void large_invariable_array_of_mixed_element_classes_is_assessed_element_by_element()
+	{
+		Object[] elements = new Object[100_000];
+		for( int i = 0; i < elements.length; i++ )
+			elements[i] = switch( i % 5 )
+				{
+					case 0 -> i;
+					case 1, 2 -> List.of( i );
+					case 3 -> null;
+					default -> String.valueOf( i );
+				};
+		assert Bathyscaphe.objectMustBeImmutableAssertion( new ClassWithLargeInvariableArray( elements ) );
+		elements[77_777] = List.of( new StringBuilder() );
+		ObjectMustBeImmutableException exception = MyTestKit.expect( ObjectMustBeImmutableException.class, () -> //
+			Bathyscaphe.objectMustBeImmutableAssertion( new ClassWithLargeInvariableArray( elements ) ) );
+		assert exception.mutablePath().toString().equals( ClassWithLargeInvariableArray.class.getName() + ".arrayField[77777][0] -> java.lang.StringBuilder" );
+	}
+
+	private static final class ChunkedSequence
+	{
+		private static final int chunkLength = 64;
+		private final Object[][] chunks;
+		private final int size;
+
+		ChunkedSequence( Object[] elements )
+		{
+			chunks = new Object[(elements.length + chunkLength - 1) / chunkLength][];
+			for( int i = 0; i < chunks.length; i++ )
+				chunks[i] = Arrays.copyOfRange( elements, i * chunkLength, Math.min( elements.length, (i + 1) * chunkLength ) );
+			size = elements.length;
+		}
+
+		Object get( int index )
+		{
+			return chunks[index / chunkLength][index % chunkLength];
+		}
+	}
+
+	private static final class ChunkedSequenceDecomposer implements IndexedDecomposer<ChunkedSequence,Object>
+	{
+		@Override public int size( ChunkedSequence chunkedSequence )
+		{
+			return chunkedSequence.size;
+		}
+
+		@Override public Object component( ChunkedSequence chunkedSequence, int index )
+		{
+			return chunkedSequence.get( index );
+		}
+	}
+
+	@Test public void user_class_preassessed_as_composite_is_assessed_by_its_components()
+	{
+		ChunkedSequenceDecomposer decomposer = new ChunkedSequenceDecomposer();
+		Bathyscaphe.addCompositePreassessment( ChunkedSequence.class, decomposer );
+		Object[] elements = new Object[10_000];
+		for( int i = 0; i < elements.length; i++ )
+			elements[i] = List.of( i );
+		ChunkedSequence immutableSequence = new ChunkedSequence( elements );
+		assert Bathyscaphe.objectMustBeImmutableAssertion( immutableSequence );
+		assert Bathyscaphe.objectMustBeImmutableAssertionInParallel( immutableSequence );
+		Spliterator<Object> spliterator = decomposer.spliterate( immutableSequence );
+		assert spliterator.hasCharacteristics( Spliterator.SUBSIZED );
+		assert spliterator.trySplit().getExactSizeIfKnown() == 5_000;
+		elements[7_777] = List.of( new StringBuilder() );
+		ChunkedSequence mutableSequence = new ChunkedSequence( elements );
+		ObjectMustBeImmutableException exception = MyTestKit.expect( ObjectMustBeImmutableException.class, () -> //
+			Bathyscaphe.objectMustBeImmutableAssertion( mutableSequence ) );
+		assert exception.mutablePath().toString().equals( ChunkedSequence.class.getName() + "[7777][0] -> java.lang.StringBuilder" ) : exception.mutablePath();
+		MyTestKit.expect( ObjectMustBeImmutableException.class, () -> //
+			Bathyscaphe.objectMustBeImmutableAssertionInParallel( mutableSequence ) );
+	}
+
+	private static final class ClassWithPolymorphicField
+	{
+		@SuppressWarnings( "unused" ) private final Object field;
+
+		ClassWithPolymorphicField( Object field )
+		{
+			this.field = field;
+		}
+	}
+
+	@Test public void values_of_polymorphic_and_megamorphic_fields_are_assessed_correctly()
+	{
+		int specializationThreshold = ObjectAssessor.instance.specializationThreshold();
+		Bathyscaphe.setSpecializationThreshold( 0 );
+		try
+		{
+			List<Object> polymorphicValues = List.of( 1, "a", List.of( 2 ), Optional.of( 3 ) );
+			List<Object> megamorphicValues = List.of( 1, "a", List.of( 2 ), Optional.of( 3 ), 4L, Set.of( 5 ), Map.of( 6, 7 ), 'c' );
+			for( List<Object> values : List.of( polymorphicValues, megamorphicValues ) )
+			{
+				List<Object> holders = new ArrayList<>();
+				for( int i = 0; i < 1000; i++ )
+					holders.add( new ClassWithPolymorphicField( values.get( i % values.size() ) ) );
+				assert Bathyscaphe.objectMustBeImmutableAssertion( List.copyOf( holders ) );
+				assert Bathyscaphe.objectMustBeImmutableAssertion( Map.of( 1, List.copyOf( holders ), 2, values ) );
+				holders.add( new ClassWithPolymorphicField( List.of( new StringBuilder() ) ) );
+				ObjectMustBeImmutableException exception = MyTestKit.expect( ObjectMustBeImmutableException.class, () -> //
+					Bathyscaphe.objectMustBeImmutableAssertion( List.copyOf( holders ) ) );
+				assert exception.mutablePath().toString().endsWith( "[1000].field[0] -> java.lang.StringBuilder" );
+			}
+		}
+		finally
+		{
+			Bathyscaphe.setSpecializationThreshold( specializationThreshold );
+		}
+	}
+
+	@SuppressWarnings( "unused" )
+	private static final class ClassWithMutableLastField
+	{
+		private final Object field1 = largeImmutableList();
+		private final Object field2 = largeImmutableList();
+		private final Object field3 = largeImmutableList();
+		private final Object field4 = largeImmutableList();
+		private final Object field5 = largeImmutableList();
+		private final Object field6 = largeImmutableList();
+		private final Object field7 = largeImmutableList();
+		private final Object field8 = List.of( new StringBuilder() );
+
+		private static Object largeImmutableList()
+		{
+			List<Object> elements = new ArrayList<>();
+			for( int i = 0; i < 100; i++ )
+				elements.add( List.of( i ) );
+			return List.copyOf( elements );
+		}
+	}
+
+	@Test public void field_which_is_usually_the_cause_of_mutability_is_visited_first()
+	{
+		AssessmentBudget budget = AssessmentBudget.unlimited.withMaximumObjectCount( 50 );
+		boolean adaptiveFieldOrdering = ObjectAssessor.instance.adaptiveFieldOrdering();
+		try
+		{
+			Bathyscaphe.setAdaptiveFieldOrdering( false );
+			for( int i = 0; i < 3; i++ )
+				assert ObjectAssessor.instance.assess( new ClassWithMutableLastField(), budget ) instanceof InconclusiveObjectAssessment;
+			Bathyscaphe.setAdaptiveFieldOrdering( true );
+			assert !Bathyscaphe.isImmutable( new ClassWithMutableLastField() );
+			assert ObjectAssessor.instance.assess( new ClassWithMutableLastField(), budget ) instanceof MutableObjectAssessment;
+			ObjectMustBeImmutableException exception = MyTestKit.expect( ObjectMustBeImmutableException.class, () -> //
+				Bathyscaphe.objectMustBeImmutableAssertion( new ClassWithMutableLastField() ) );
+			assert exception.mutablePath().toString().equals( ClassWithMutableLastField.class.getName() + ".field8[0] -> java.lang.StringBuilder" );
+			Bathyscaphe.setAdaptiveFieldOrdering( false );
+			assert ObjectAssessor.instance.assess( new ClassWithMutableLastField(), budget ) instanceof InconclusiveObjectAssessment;
+		}
+		finally
+		{
+			Bathyscaphe.setAdaptiveFieldOrdering( adaptiveFieldOrdering );
+		}
+	}
 }
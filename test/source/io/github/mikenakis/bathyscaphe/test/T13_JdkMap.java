@@ -7,6 +7,9 @@
 
 package io.github.mikenakis.bathyscaphe.test;
 
+import io.github.mikenakis.bathyscaphe.Bathyscaphe;
+import io.github.mikenakis.bathyscaphe.ObjectMustBeImmutableException;
+import io.github.mikenakis.bathyscaphe.internal.ObjectAssessor;
 import io.github.mikenakis.bathyscaphe.internal.assessments.ImmutableObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.MutableObjectAssessment;
 import io.github.mikenakis.bathyscaphe.internal.assessments.ObjectAssessment;
@@ -17,6 +20,8 @@ import org.junit.Test;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -138,7 +143,7 @@ public class T13_JdkMap
 		checkMutableAssessmentOfSuperficiallyImmutableJdkMap( object, mutableEntry, assessment, 3 );
 	}
 
-	private static void checkMutableAssessmentOfSuperficiallyImmutableJdkMap( Map<?,?> object, Object mutableEntry, ObjectAssessment assessment, int size )
+	private static void checkMutableAssessmentOfSuperficiallyImmutableJdkMap( Map<?,?> object, ConcreteMapEntry<?,?> mutableEntry, ObjectAssessment assessment, int size )
 	{
 		assert assessment instanceof MutableObjectAssessment;
 		MutableObjectAssessment mutableObjectAssessment = (MutableObjectAssessment)assessment;
@@ -146,7 +151,53 @@ public class T13_JdkMap
 		assert mutableObjectAssessment.typeAssessment().type == object.getClass();
 		assert mutableObjectAssessment instanceof MutableComponentMutableObjectAssessment;
 		MutableComponentMutableObjectAssessment<?,?> mutableComponentAssessment = (MutableComponentMutableObjectAssessment<?,?>)mutableObjectAssessment;
-		assert mutableComponentAssessment.elementIndex >= 0 && mutableComponentAssessment.elementIndex < size; //cannot assert precise index because hashmaps garble the order of items
-		assert mutableComponentAssessment.elementAssessment.object().equals( mutableEntry );
+		assert mutableComponentAssessment.elementIndex >= 0 && mutableComponentAssessment.elementIndex < size * 2; //cannot assert precise index because hashmaps garble the order of items
+		boolean keyIsMutable = mutableComponentAssessment.elementIndex % 2 == 0;
+		assert mutableComponentAssessment.elementAssessment.object() == (keyIsMutable ? mutableEntry.key() : mutableEntry.value());
+		assert mutableComponentAssessment.componentDescription().equals( (keyIsMutable ? "key " : "value of key ") + mutableEntry.key() );
+	}
+
+	@Test public void large_map_is_assessed_by_keys_and_values()
+	{
+		Map<Integer,Object> entries = new HashMap<>();
+		for( int i = 0; i < 100_000; i++ )
+			entries.put( i, List.of( i ) );
+		Map<?,?> immutableObject = Map.copyOf( entries );
+		assert ObjectAssessor.instance.assess( immutableObject ) instanceof ImmutableObjectAssessment;
+		entries.put( 77_777, List.of( new ArrayList<>() ) );
+		Map<?,?> mutableObject = Map.copyOf( entries );
+		MutableComponentMutableObjectAssessment<?,?> assessment = (MutableComponentMutableObjectAssessment<?,?>)ObjectAssessor.instance.assess( mutableObject );
+		assert assessment.elementIndex % 2 == 1;
+		assert assessment.componentDescription().equals( "value of key 77777" );
+		assert assessment.elementAssessment.object() == entries.get( 77_777 );
+	}
+
+	@Test public void map_with_many_mutable_values_reports_the_first_one_in_iteration_order()
+	{
+		Map<Integer,Object> entries = new HashMap<>();
+		for( int i = 0; i < 1000; i++ )
+			entries.put( i, i % 100 == 37 ? List.of( new ArrayList<>() ) : List.of( i ) );
+		Map<?,?> mutableObject = Map.copyOf( entries );
+		Object firstMutableKey = null;
+		for( Map.Entry<?,?> entry : mutableObject.entrySet() )
+			if( (Integer)entry.getKey() % 100 == 37 )
+			{
+				firstMutableKey = entry.getKey();
+				break;
+			}
+		for( int i = 0; i < 2; i++ )
+		{
+			MutableComponentMutableObjectAssessment<?,?> assessment = (MutableComponentMutableObjectAssessment<?,?>)ObjectAssessor.instance.assess( mutableObject );
+			assert assessment.componentDescription().equals( "value of key " + firstMutableKey );
+			assert assessment.elementAssessment.object() == entries.get( firstMutableKey );
+		}
+	}
+
+	@Test public void mutable_path_through_map_names_the_key()
+	{
+		Map<String,Object> mutableObject = Map.of( "a", List.of( 1 ), "b", new ArrayList<>() );
+		ObjectMustBeImmutableException exception = MyTestKit.expect( ObjectMustBeImmutableException.class, () -> //
+			Bathyscaphe.objectMustBeImmutableAssertion( mutableObject ) );
+		assert exception.mutablePath().toString().equals( mutableObject.getClass().getName() + "[value of key b] -> java.util.ArrayList" ) : exception.mutablePath();
 	}
 }
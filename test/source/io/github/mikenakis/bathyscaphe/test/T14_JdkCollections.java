@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.test;
+
+import io.github.mikenakis.bathyscaphe.AssessmentBudget;
+import io.github.mikenakis.bathyscaphe.Bathyscaphe;
+import io.github.mikenakis.bathyscaphe.internal.ObjectAssessor;
+import io.github.mikenakis.bathyscaphe.internal.assessments.ImmutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.InconclusiveObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.ObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableComponentMutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.mykit.MyKit;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Test.
+ *
+ * @author michael.gr
+ */
+@SuppressWarnings( { "FieldMayBeFinal", "InstanceVariableMayNotBeInitialized" } )
+public class T14_JdkCollections
+{
+	public T14_JdkCollections()
+	{
+		if( !MyKit.areAssertionsEnabled() )
+			throw new AssertionError();
+	}
+
+	/**
+	 * Asserts that a collection created from a number of elements is immutable, and that its assessment charges a fixed number of objects per element,
+	 * plus a fixed number of other objects, regardless of the number of elements.
+	 */
+	private static void assertLinear( int perElementCount, int overheadCount, Function<List<Object>,Object> factory )
+	{
+		for( int elementCount : new int[] { 1_000, 4_000 } )
+		{
+			List<Object> elements = new ArrayList<>();
+			for( int i = 0; i < elementCount; i++ )
+				elements.add( List.of( i ) );
+			Object object = factory.apply( elements );
+			int objectCount = elementCount * perElementCount + overheadCount;
+			AssessmentBudget budget = AssessmentBudget.unlimited.withMaximumObjectCount( objectCount );
+			assert ObjectAssessor.instance.assess( object, budget ) instanceof ImmutableObjectAssessment;
+			budget = budget.withMaximumObjectCount( objectCount - 1 );
+			assert ObjectAssessor.instance.assess( object, budget ) instanceof InconclusiveObjectAssessment;
+		}
+	}
+
+	private static Map<Object,Object> mapOf( List<Object> values )
+	{
+		Map<Object,Object> map = new HashMap<>();
+		for( int i = 0; i < values.size(); i++ )
+			map.put( i, values.get( i ) );
+		return map;
+	}
+
+	@Test public void set_of_is_assessed_in_linear_time()
+	{
+		assertLinear( 2, 1, Set::copyOf );
+		assert ObjectAssessor.instance.assess( Set.of( List.of( 1 ), List.of( 2 ) ) ) instanceof ImmutableObjectAssessment;
+		assert !(ObjectAssessor.instance.assess( Set.of( new StringBuilder() ) ) instanceof ImmutableObjectAssessment);
+	}
+
+	@Test public void sub_list_is_assessed_in_linear_time()
+	{
+		assertLinear( 2, 1, elements -> List.copyOf( elements ).subList( 0, elements.size() ) );
+		assert !(ObjectAssessor.instance.assess( List.of( 1, new StringBuilder(), 3 ).subList( 1, 3 ) ) instanceof ImmutableObjectAssessment);
+	}
+
+	@Test public void empty_collections_are_immutable()
+	{
+		assert ObjectAssessor.instance.assess( Collections.emptyList() ) instanceof ImmutableObjectAssessment;
+		assert ObjectAssessor.instance.assess( Collections.emptySet() ) instanceof ImmutableObjectAssessment;
+		assert ObjectAssessor.instance.assess( Collections.emptyMap() ) instanceof ImmutableObjectAssessment;
+	}
+
+	@Test public void singleton_collections_are_assessed_by_their_element()
+	{
+		assert ObjectAssessor.instance.assess( Collections.singletonList( List.of( 1 ) ) ) instanceof ImmutableObjectAssessment;
+		assert ObjectAssessor.instance.assess( Collections.singleton( List.of( 1 ) ) ) instanceof ImmutableObjectAssessment;
+		assert ObjectAssessor.instance.assess( Collections.singletonMap( 1, List.of( 1 ) ) ) instanceof ImmutableObjectAssessment;
+		assert !(ObjectAssessor.instance.assess( Collections.singletonList( new StringBuilder() ) ) instanceof ImmutableObjectAssessment);
+		assert !(ObjectAssessor.instance.assess( Collections.singleton( new StringBuilder() ) ) instanceof ImmutableObjectAssessment);
+		assert !(ObjectAssessor.instance.assess( Collections.singletonMap( 1, new StringBuilder() ) ) instanceof ImmutableObjectAssessment);
+	}
+
+	@Test public void unmodifiable_views_of_immutable_collections_are_assessed_in_linear_time()
+	{
+		assertLinear( 2, 2, elements -> Collections.unmodifiableList( List.copyOf( elements ) ) );
+		assertLinear( 2, 2, elements -> Collections.unmodifiableCollection( List.copyOf( elements ) ) );
+		assertLinear( 2, 2, elements -> Collections.unmodifiableSet( Set.copyOf( elements ) ) );
+		assertLinear( 3, 2, elements -> Collections.unmodifiableMap( Map.copyOf( mapOf( elements ) ) ) );
+	}
+
+	@Test public void unmodifiable_view_of_mutable_list_is_mutable()
+	{
+		Method method = Helper.getCurrentMethod();
+		List<Object> object = Collections.unmodifiableList( new ArrayList<>( List.of( 1, 2, 3 ) ) );
+		ObjectAssessment assessment = Helper.assess( method, object );
+		assert assessment instanceof MutableComponentMutableObjectAssessment<?,?> mutableComponentAssessment && //
+			mutableComponentAssessment.elementAssessment.object() instanceof ArrayList;
+	}
+
+	@Test public void unmodifiable_view_of_mutable_sorted_map_is_mutable()
+	{
+		Method method = Helper.getCurrentMethod();
+		Map<Object,Object> object = Collections.unmodifiableSortedMap( new TreeMap<>( Map.of( 1, 2 ) ) );
+		ObjectAssessment assessment = Helper.assess( method, object );
+		assert assessment instanceof MutableComponentMutableObjectAssessment<?,?> mutableComponentAssessment && //
+			mutableComponentAssessment.elementAssessment.object() instanceof TreeMap;
+	}
+
+	@Test public void empty_sorted_collections_are_immutable()
+	{
+		assert ObjectAssessor.instance.assess( Collections.emptySortedSet() ) instanceof ImmutableObjectAssessment;
+		assert ObjectAssessor.instance.assess( Collections.emptyNavigableSet() ) instanceof ImmutableObjectAssessment;
+		assert ObjectAssessor.instance.assess( Collections.emptySortedMap() ) instanceof ImmutableObjectAssessment;
+		assert ObjectAssessor.instance.assess( Collections.emptyNavigableMap() ) instanceof ImmutableObjectAssessment;
+	}
+
+	@Test public void entry_set_of_unmodifiable_view_is_assessed_by_the_entry_set_behind_it()
+	{
+		assert !(ObjectAssessor.instance.assess( Collections.unmodifiableMap( new HashMap<>() ).entrySet() ) instanceof ImmutableObjectAssessment);
+		assert ObjectAssessor.instance.assess( Collections.unmodifiableMap( Map.of() ).entrySet() ) instanceof ImmutableObjectAssessment;
+		assert ObjectAssessor.instance.assess( Collections.unmodifiableMap( Map.of( 1, List.of( 2 ) ) ).entrySet() ) instanceof ImmutableObjectAssessment;
+	}
+
+	/**
+	 * Runs in a separate JVM in which {@code java.util} has not been opened, and prints the assessment of an unmodifiable view of an immutable list.
+	 */
+	public static final class AssessorOfUnmodifiableView
+	{
+		public static void main( String[] arguments )
+		{
+			System.out.print( Bathyscaphe.isImmutable( Collections.unmodifiableList( List.of( 1 ) ) ) );
+		}
+	}
+
+	@Test public void unmodifiable_view_is_mutable_when_java_util_is_not_opened()
+	{
+		String output = MyTestKit.runInSeparateJvm( AssessorOfUnmodifiableView.class );
+		assert output.equals( "false" ) : output;
+	}
+}
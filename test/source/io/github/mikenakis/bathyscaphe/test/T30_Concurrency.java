@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.test;
+
+import io.github.mikenakis.bathyscaphe.Bathyscaphe;
+import io.github.mikenakis.bathyscaphe.ImmutabilitySelfAssessable;
+import io.github.mikenakis.bathyscaphe.ObjectMustBeImmutableException;
+import io.github.mikenakis.bathyscaphe.QueueFullPolicy;
+import io.github.mikenakis.bathyscaphe.annotations.Invariable;
+import io.github.mikenakis.bathyscaphe.internal.AsyncAssessor;
+import io.github.mikenakis.bathyscaphe.internal.ObjectAssessor;
+import io.github.mikenakis.bathyscaphe.internal.assessments.ImmutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.ObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.assessments.mutable.MutableComponentMutableObjectAssessment;
+import io.github.mikenakis.bathyscaphe.internal.diagnostic.AssessmentPrinter;
+import io.github.mikenakis.bathyscaphe.internal.mykit.MyKit;
+import io.github.mikenakis.bathyscaphe.internal.type.TypeAssessor;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.TypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.assessments.nonimmutable.mutable.MutableTypeAssessment;
+import io.github.mikenakis.bathyscaphe.internal.type.exceptions.AnnotatedFieldMustBePrivateException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test.
+ *
+ * @author michael.gr
+ */
+@SuppressWarnings( { "FieldMayBeFinal", "InstanceVariableMayNotBeInitialized" } )
+public class T30_Concurrency
+{
+	private static final int threadCount = 16;
+
+	public T30_Concurrency()
+	{
+		if( !MyKit.areAssertionsEnabled() )
+			throw new AssertionError();
+	}
+
+	@SuppressWarnings( "unused" ) static class MutuallyReferencingA
+	{
+		private final MutuallyReferencingB b = null;
+	}
+
+	@SuppressWarnings( "unused" ) static class MutuallyReferencingB
+	{
+		private final MutuallyReferencingC c = null;
+	}
+
+	@SuppressWarnings( "unused" ) static class MutuallyReferencingC
+	{
+		private final MutuallyReferencingA a = null;
+		private int mutableField;
+	}
+
+	@Test public void concurrent_assessment_of_mutually_referencing_types_issues_a_single_assessment_per_type()
+	{
+		TypeAssessor typeAssessor = TypeAssessor.create();
+		List<Class<?>> types = List.of( MutuallyReferencingA.class, MutuallyReferencingB.class, MutuallyReferencingC.class );
+		CountDownLatch startLatch = new CountDownLatch( 1 );
+		ExecutorService executorService = Executors.newFixedThreadPool( threadCount );
+		try
+		{
+			List<Future<List<TypeAssessment>>> futures = new ArrayList<>();
+			for( int i = 0; i < threadCount; i++ )
+			{
+				int offset = i;
+				futures.add( executorService.submit( () -> //
+				{
+					startLatch.await();
+					TypeAssessment[] assessments = new TypeAssessment[types.size()];
+					for( int j = 0; j < types.size(); j++ )
+					{
+						int index = (offset + j) % types.size();
+						assessments[index] = typeAssessor.assess( types.get( index ) );
+					}
+					return List.of( assessments );
+				} ) );
+			}
+			startLatch.countDown();
+			for( Future<List<TypeAssessment>> future : futures )
+			{
+				List<TypeAssessment> assessments = MyTestKit.unchecked( () -> future.get() );
+				for( int i = 0; i < types.size(); i++ )
+				{
+					assert assessments.get( i ) instanceof MutableTypeAssessment;
+					assert assessments.get( i ) == typeAssessor.assess( types.get( i ) );
+				}
+			}
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+
+	@Test public void assessment_of_type_which_is_mutable_through_a_cycle_does_not_depend_on_order()
+	{
+		TypeAssessor typeAssessor = TypeAssessor.create();
+		assert typeAssessor.assess( MutuallyReferencingC.class ) instanceof MutableTypeAssessment;
+		assert typeAssessor.assess( MutuallyReferencingB.class ) instanceof MutableTypeAssessment;
+		assert typeAssessor.assess( MutuallyReferencingA.class ) instanceof MutableTypeAssessment;
+	}
+
+	@Test public void concurrent_assessment_of_type_which_is_mutable_through_a_cycle_is_mutable()
+	{
+		ExecutorService executorService = Executors.newFixedThreadPool( 2 );
+		try
+		{
+			for( int i = 0; i < 500; i++ )
+			{
+				TypeAssessor typeAssessor = TypeAssessor.create();
+				CyclicBarrier barrier = new CyclicBarrier( 2 );
+				Future<TypeAssessment> futureA = executorService.submit( () -> //
+				{
+					barrier.await();
+					return typeAssessor.assess( MutuallyReferencingA.class );
+				} );
+				Future<TypeAssessment> futureC = executorService.submit( () -> //
+				{
+					barrier.await();
+					return typeAssessor.assess( MutuallyReferencingC.class );
+				} );
+				assert MyTestKit.unchecked( () -> futureA.get() ) instanceof MutableTypeAssessment;
+				assert MyTestKit.unchecked( () -> futureC.get() ) instanceof MutableTypeAssessment;
+				assert typeAssessor.assess( MutuallyReferencingB.class ) instanceof MutableTypeAssessment;
+			}
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+
+	@SuppressWarnings( "unused" ) static class ClassWithPublicAnnotatedField
+	{
+		@Invariable public Integer publicAnnotatedField;
+	}
+
+	@Test public void concurrent_assessment_of_erroneous_type_fails_in_every_thread()
+	{
+		TypeAssessor typeAssessor = TypeAssessor.create();
+		CountDownLatch startLatch = new CountDownLatch( 1 );
+		ExecutorService executorService = Executors.newFixedThreadPool( threadCount );
+		try
+		{
+			List<Future<AnnotatedFieldMustBePrivateException>> futures = new ArrayList<>();
+			for( int i = 0; i < threadCount; i++ )
+				futures.add( executorService.submit( () -> //
+				{
+					startLatch.await();
+					//PEARL: MyTestKit.expect() cannot be used here, because it is not thread-safe.
+					try
+					{
+						typeAssessor.assess( ClassWithPublicAnnotatedField.class );
+					}
+					catch( AnnotatedFieldMustBePrivateException exception )
+					{
+						return exception;
+					}
+					throw new AssertionError();
+				} ) );
+			startLatch.countDown();
+			for( Future<AnnotatedFieldMustBePrivateException> future : futures )
+				assert MyTestKit.unchecked( () -> future.get() ).field.getName().equals( "publicAnnotatedField" );
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+
+	@SuppressWarnings( "unused" ) static final class TreeNode
+	{
+		private final Object left;
+		private final Object right;
+
+		TreeNode( Object left, Object right )
+		{
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	private static Object createTree( int depth, Object leaf )
+	{
+		if( depth == 0 )
+			return leaf;
+		return new TreeNode( createTree( depth - 1, leaf ), createTree( depth - 1, leaf ) );
+	}
+
+	@Test public void parallel_assessment_of_immutable_object_is_immutable()
+	{
+		Object object = createTree( 16, null );
+		assert ObjectAssessor.instance.assessInParallel( object, ForkJoinPool.commonPool() ) instanceof ImmutableObjectAssessment;
+	}
+
+	@Test public void parallel_assessment_of_mutable_object_reports_the_same_path_as_sequential_assessment()
+	{
+		Object object = List.of( createTree( 12, 1 ), createTree( 12, new StringBuilder() ), createTree( 12, new ArrayList<>() ) );
+		ObjectAssessment sequentialAssessment = ObjectAssessor.instance.assess( object );
+		ObjectAssessment parallelAssessment = ObjectAssessor.instance.assessInParallel( object, ForkJoinPool.commonPool() );
+		assert AssessmentPrinter.getText( parallelAssessment ).equals( AssessmentPrinter.getText( sequentialAssessment ) );
+	}
+
+	@Test public void parallel_assessment_of_huge_composite_reports_the_first_mutable_component()
+	{
+		Object[] elements = new Object[100_000];
+		for( int i = 0; i < elements.length; i++ )
+			elements[i] = createTree( 2, i );
+		elements[70_000] = createTree( 2, new StringBuilder() );
+		elements[90_000] = new ArrayList<>();
+		Object object = List.of( elements );
+		ObjectAssessment assessment = ObjectAssessor.instance.assessInParallel( object, ForkJoinPool.commonPool() );
+		var mutableComponentMutableObjectAssessment = (MutableComponentMutableObjectAssessment<?,?>)assessment;
+		assert mutableComponentMutableObjectAssessment.elementIndex == 70_000;
+	}
+
+	/**
+	 * A self-assessable object whose self-assessment blocks until released.
+	 * <p>
+	 * The latches and the counter are not kept in fields, because they are mutable, so they would make the object mutable without it being asked.
+	 */
+	static final class SlowSelfAssessable implements ImmutabilitySelfAssessable
+	{
+		private final Runnable onSelfAssessment;
+
+		SlowSelfAssessable( CountDownLatch startedLatch, CountDownLatch releaseLatch, AtomicInteger selfAssessmentCount )
+		{
+			onSelfAssessment = () -> //
+			{
+				selfAssessmentCount.incrementAndGet();
+				startedLatch.countDown();
+				MyTestKit.unchecked( () -> releaseLatch.await() );
+			};
+		}
+
+		@Override public boolean isImmutable()
+		{
+			onSelfAssessment.run();
+			return true;
+		}
+	}
+
+	@Test public void asynchronous_assessment_completes_according_to_mutability()
+	{
+		MyTestKit.unchecked( () -> Bathyscaphe.assessAsync( List.of( 1, List.of( 2 ) ) ).get() );
+		ExecutionException exception = MyTestKit.expect( ExecutionException.class, () -> //
+			MyTestKit.unchecked( () -> Bathyscaphe.assessAsync( List.of( 1, List.of( new ArrayList<>() ) ) ).get() ) );
+		assert exception.getCause() instanceof ObjectMustBeImmutableException;
+	}
+
+	@Test public void concurrent_asynchronous_assessments_of_the_same_object_share_a_single_traversal()
+	{
+		CountDownLatch startedLatch = new CountDownLatch( 1 );
+		CountDownLatch releaseLatch = new CountDownLatch( 1 );
+		AtomicInteger selfAssessmentCount = new AtomicInteger();
+		SlowSelfAssessable object = new SlowSelfAssessable( startedLatch, releaseLatch, selfAssessmentCount );
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		futures.add( Bathyscaphe.assessAsync( object ) );
+		MyTestKit.unchecked( () -> startedLatch.await() );
+		for( int i = 0; i < threadCount; i++ )
+			futures.add( Bathyscaphe.assessAsync( object ) );
+		releaseLatch.countDown();
+		for( CompletableFuture<Void> future : futures )
+			MyTestKit.unchecked( () -> future.get() );
+		assert selfAssessmentCount.get() == 1;
+	}
+
+	@Test public void asynchronous_assessment_beyond_the_maximum_pending_count_is_handled_according_to_policy()
+	{
+		ExecutorService executorService = Executors.newCachedThreadPool();
+		try
+		{
+			CountDownLatch releaseLatch = new CountDownLatch( 1 );
+			SlowSelfAssessable object = new SlowSelfAssessable( new CountDownLatch( 1 ), releaseLatch, new AtomicInteger() );
+			Bathyscaphe.configureAsyncAssessment( executorService, 1, QueueFullPolicy.Abort );
+			CompletableFuture<Void> abortFuture = Bathyscaphe.assessAsync( object );
+			ExecutionException exception = MyTestKit.expect( ExecutionException.class, () -> //
+				MyTestKit.unchecked( () -> Bathyscaphe.assessAsync( List.of( new ArrayList<>() ) ).get() ) );
+			assert exception.getCause() instanceof RejectedExecutionException;
+			Bathyscaphe.configureAsyncAssessment( executorService, 1, QueueFullPolicy.Discard );
+			CompletableFuture<Void> discardFuture = Bathyscaphe.assessAsync( object );
+			CompletableFuture<Void> discardedFuture = Bathyscaphe.assessAsync( List.of( new ArrayList<>() ) );
+			assert discardedFuture.isDone() && !discardedFuture.isCompletedExceptionally();
+			releaseLatch.countDown();
+			MyTestKit.unchecked( () -> abortFuture.get() );
+			MyTestKit.unchecked( () -> discardFuture.get() );
+		}
+		finally
+		{
+			Bathyscaphe.configureAsyncAssessment( Executors.newVirtualThreadPerTaskExecutor(), 1024, QueueFullPolicy.Abort );
+			executorService.shutdown();
+		}
+	}
+
+	@Test public void asynchronous_assessment_run_by_the_caller_fails_with_any_throwable()
+	{
+		ExecutorService executorService = Executors.newCachedThreadPool();
+		try
+		{
+			CountDownLatch startedLatch = new CountDownLatch( 1 );
+			CountDownLatch releaseLatch = new CountDownLatch( 1 );
+			AsyncAssessor asyncAssessor = new AsyncAssessor( executorService, 1, QueueFullPolicy.CallerRuns );
+			CompletableFuture<Void> pendingFuture = asyncAssessor.submit( new Object(), () -> //
+			{
+				startedLatch.countDown();
+				MyTestKit.unchecked( () -> releaseLatch.await() );
+			} );
+			MyTestKit.unchecked( () -> startedLatch.await() );
+			StackOverflowError error = new StackOverflowError();
+			CompletableFuture<Void> callerRunsFuture = asyncAssessor.submit( new Object(), () -> //
+			{
+				throw error;
+			} );
+			ExecutionException exception = MyTestKit.expect( ExecutionException.class, () -> MyTestKit.unchecked( () -> callerRunsFuture.get() ) );
+			assert exception.getCause() == error;
+			releaseLatch.countDown();
+			MyTestKit.unchecked( () -> pendingFuture.get() );
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2022 Michael Belivanakis a.k.a. MikeNakis, michael.gr
+ *
+ * For licensing information, please see LICENSE.md.
+ * You may not use this file except in compliance with the license.
+ */
+
+package io.github.mikenakis.bathyscaphe.test;
+
+import io.github.mikenakis.bathyscaphe.AssessmentLevel;
+import io.github.mikenakis.bathyscaphe.Bathyscaphe;
+import io.github.mikenakis.bathyscaphe.internal.ObjectAssessor;
+import io.github.mikenakis.bathyscaphe.internal.mykit.MyKit;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Test.
+ *
+ * @author michael.gr
+ */
+@SuppressWarnings( { "FieldMayBeFinal", "InstanceVariableMayNotBeInitialized" } )
+public class T31_ClassUnloading
+{
+	public T31_ClassUnloading()
+	{
+		if( !MyKit.areAssertionsEnabled() )
+			throw new AssertionError();
+	}
+
+	/**
+	 * A class which gets loaded by a throwaway class-loader. It has a provisory field, so that assessing instances of it leaves behind as much assessment
+	 * state as possible.
+	 */
+	@SuppressWarnings( "unused" ) public static final class Throwaway
+	{
+		private final Object provisoryField = "";
+
+		public Throwaway()
+		{
+		}
+	}
+
+	private static final class ThrowawayClassLoader extends ClassLoader
+	{
+		final Class<?> throwawayClass;
+
+		ThrowawayClassLoader()
+		{
+			super( T31_ClassUnloading.class.getClassLoader() );
+			String resourceName = Throwaway.class.getName().replace( '.', '/' ) + ".class";
+			byte[] bytes = MyTestKit.unchecked( () -> //
+			{
+				try( InputStream inputStream = getParent().getResourceAsStream( resourceName ) )
+				{
+					assert inputStream != null;
+					return inputStream.readAllBytes();
+				}
+			} );
+			throwawayClass = defineClass( Throwaway.class.getName(), bytes, 0, bytes.length );
+		}
+	}
+
+	@Test public void assessed_class_does_not_prevent_its_class_loader_from_being_collected()
+	{
+		assertCollected( assessThrowawayInstance( Function.identity() ) );
+	}
+
+	@Test public void component_of_jdk_composite_does_not_prevent_its_class_loader_from_being_collected()
+	{
+		assertCollected( assessThrowawayInstance( List::of ) );
+	}
+
+	@Test public void field_value_of_jdk_class_does_not_prevent_its_class_loader_from_being_collected()
+	{
+		assertCollected( assessThrowawayInstance( throwaway -> new AbstractMap.SimpleImmutableEntry<>( "key", throwaway ) ) );
+	}
+
+	@Test public void class_level_does_not_prevent_its_class_loader_from_being_collected()
+	{
+		try
+		{
+			assertCollected( setLevelOfThrowawayClass() );
+		}
+		finally
+		{
+			Bathyscaphe.setAssessmentLevel( Throwaway.class, null ); //levels are kept by class name, so this removes the level of the throwaway class.
+		}
+	}
+
+	public record ApplicationRecord( int value )
+	{
+	}
+
+	/**
+	 * Runs in a separate JVM, so that the inline cache of the class of {@code List.of()} has not already seen more classes than it can remember, and prints
+	 * whether the class of the elements of such a list was cached after assessing it.
+	 */
+	public static final class AssessorOfListOfApplicationRecords
+	{
+		public static void main( String[] arguments )
+		{
+			List<ApplicationRecord> list = List.of( new ApplicationRecord( 1 ), new ApplicationRecord( 2 ), new ApplicationRecord( 3 ) );
+			assert list.getClass().getClassLoader() != ApplicationRecord.class.getClassLoader();
+			assert Bathyscaphe.isImmutable( list );
+			System.out.print( ObjectAssessor.instance.isComponentPlanCached( list.getClass(), ApplicationRecord.class ) );
+		}
+	}
+
+	@Test public void component_of_jdk_composite_is_cached_even_if_its_class_loader_is_not_that_of_the_composite()
+	{
+		String output = MyTestKit.runInSeparateJvm( AssessorOfListOfApplicationRecords.class );
+		assert output.equals( "true" ) : output;
+	}
+
+	private static void assertCollected( WeakReference<ClassLoader> classLoaderReference )
+	{
+		for( int i = 0; i < 100 && classLoaderReference.get() != null; i++ )
+		{
+			System.gc();
+			MyTestKit.unchecked( () -> Thread.sleep( 10 ) );
+		}
+		assert classLoaderReference.get() == null;
+	}
+
+	private static WeakReference<ClassLoader> setLevelOfThrowawayClass()
+	{
+		ThrowawayClassLoader classLoader = new ThrowawayClassLoader();
+		Bathyscaphe.setAssessmentLevel( classLoader.throwawayClass, AssessmentLevel.TypeOnly );
+		Object object = MyTestKit.unchecked( () -> classLoader.throwawayClass.getConstructor().newInstance() );
+		assert Bathyscaphe.objectMustBeImmutableAssertion( object );
+		return new WeakReference<>( classLoader );
+	}
+
+	/**
+	 * Assesses an instance of the throwaway class, held by an object of a class of the JDK, so that the JDK class gets to see the throwaway class.
+	 */
+	private static WeakReference<ClassLoader> assessThrowawayInstance( Function<Object,Object> holderFactory )
+	{
+		ThrowawayClassLoader classLoader = new ThrowawayClassLoader();
+		assert classLoader.throwawayClass != Throwaway.class;
+		Object object = MyTestKit.unchecked( () -> classLoader.throwawayClass.getConstructor().newInstance() );
+		Object holder = holderFactory.apply( object );
+		//Assess the holder repeatedly, so that any caches and specializations kick in.
+		for( int i = 0; i < 200; i++ )
+			assert Bathyscaphe.objectMustBeImmutableAssertion( holder );
+		return new WeakReference<>( classLoader );
+	}
+}